@@ -0,0 +1,156 @@
+package com.zero.nts.client;
+
+import com.zero.nts.client.handler.EasyClientHandler;
+import com.zero.nts.client.handler.ResponseCorrelationHandler;
+import com.zero.nts.codec.EasyDecoder;
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.transport.TransportType;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步多路复用客户端
+ * <p>
+ * 单个连接上可同时发送多个请求，{@link #send(EasyMessage)} 立即返回 {@link CompletableFuture}，
+ * 响应通过消息ID与请求关联。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/10 16:02 </p>
+ */
+@Slf4j
+public class EasyClient implements Closeable {
+    /**
+     * 默认请求超时时间
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+    /**
+     * 客户端共享的超时定时器
+     */
+    private static final Timer SHARED_TIMER = new HashedWheelTimer(
+            new DefaultThreadFactory("nts-client-timer", true), 10, TimeUnit.MILLISECONDS);
+
+    private final String host;
+    private final int port;
+    private final boolean ownsGroup;
+    private final EventLoopGroup group;
+    private final TransportType transport;
+    private final Timer timer;
+    private Channel channel;
+    private ResponseCorrelationHandler correlation;
+
+    public EasyClient(String host, int port) {
+        this(host, port, null, SHARED_TIMER);
+    }
+
+    /**
+     * @param host  服务端地址
+     * @param port  服务端端口
+     * @param group 共享的事件循环，为 null 时客户端自行创建并在关闭时释放
+     * @param timer 请求超时定时器
+     */
+    public EasyClient(String host, int port, EventLoopGroup group, Timer timer) {
+        this.host = host;
+        this.port = port;
+        this.transport = TransportType.AUTO.resolve();
+        this.ownsGroup = group == null;
+        this.group = group == null ? transport.newEventLoopGroup(1, null) : group;
+        this.timer = timer;
+    }
+
+    /**
+     * 客户端共享的超时定时器
+     */
+    public static Timer sharedTimer() {
+        return SHARED_TIMER;
+    }
+
+    /**
+     * 建立连接（阻塞直到连接成功或失败）
+     * @return 当前客户端
+     */
+    public EasyClient connect() throws InterruptedException {
+        ResponseCorrelationHandler handler = new ResponseCorrelationHandler(timer);
+        Bootstrap bootstrap = new Bootstrap()
+                .group(group)
+                .channel(transport.socketChannelClass())
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) throws Exception {
+                        ch.pipeline()
+                                .addLast(new EasyDecoder())
+                                .addLast(new EasyEncoder())
+                                .addLast(handler)
+                                // 处理未关联到请求的消息
+                                .addLast(new EasyClientHandler());
+                    }
+                });
+        channel = bootstrap.connect(host, port).sync().channel();
+        correlation = handler;
+        return this;
+    }
+
+    /**
+     * 发送请求，使用默认超时时间
+     * @param message 请求消息，消息ID由客户端分配
+     * @return 响应结果
+     */
+    public CompletableFuture<EasyMessage> send(EasyMessage message) {
+        return send(message, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * 发送请求
+     * @param message 请求消息，消息ID由客户端分配
+     * @param timeout 超时时间，超时后以 {@link java.util.concurrent.TimeoutException} 结束
+     * @return 响应结果
+     */
+    public CompletableFuture<EasyMessage> send(EasyMessage message, Duration timeout) {
+        if (correlation == null) {
+            throw new IllegalStateException("client is not connected");
+        }
+        return correlation.request(message, timeout.toMillis());
+    }
+
+    /**
+     * 在途请求数
+     */
+    public int inFlight() {
+        return correlation == null ? 0 : correlation.inFlight();
+    }
+
+    public Channel channel() {
+        return channel;
+    }
+
+    /**
+     * 连接可用：已连接且服务端未通知下线
+     */
+    public boolean isActive() {
+        return channel != null && channel.isActive() && (correlation == null || !correlation.isGoingAway());
+    }
+
+    @Override
+    public void close() {
+        if (channel != null) {
+            channel.close().syncUninterruptibly();
+        }
+        if (ownsGroup) {
+            group.shutdownGracefully();
+        }
+    }
+}
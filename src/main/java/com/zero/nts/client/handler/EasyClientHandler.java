@@ -16,7 +16,8 @@ public class EasyClientHandler extends SimpleChannelInboundHandler<EasyMessage>
 
     @Override
     protected void channelRead0(ChannelHandlerContext channelHandlerContext, EasyMessage easyMessage) throws Exception {
-        log.info("server: {}, payload: {}", easyMessage, new String(easyMessage.getData(), StandardCharsets.UTF_8));
+        // 无数据体（GO_AWAY、心跳探测）或 ByteBuf 数据体时 getData() 为 null 或需要拷贝，直接按字符集解析
+        log.info("server: {}, payload: {}", easyMessage, easyMessage.getDataAsString(StandardCharsets.UTF_8));
     }
 
     @Override
@@ -0,0 +1,12 @@
+package com.zero.nts.client.handler;
+
+/**
+ * 收到服务端 {@link com.zero.nts.message.MessageType#GO_AWAY} 后，由 {@link ResponseCorrelationHandler}
+ * 在 pipeline 中触发的用户事件，连接池据此不再向该连接分配请求
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/25 10:30 </p>
+ */
+public enum GoAwayEvent {
+    INSTANCE
+}
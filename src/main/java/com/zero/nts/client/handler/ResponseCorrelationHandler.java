@@ -0,0 +1,184 @@
+package com.zero.nts.client.handler;
+
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 请求/响应关联处理器，每个连接一个实例
+ * <p>
+ * 发送请求时分配连接内唯一的消息ID，响应按 {@link EasyMessage#getId()} 匹配到对应的 {@link CompletableFuture}，
+ * 同一连接上可以同时存在多个未完成的请求。在途请求表只在 Channel 的 EventLoop 中访问，
+ * 使用以 long 为键的 {@link LongObjectHashMap}，既无锁也无 Long 装箱；超时由共享的 {@link Timer} 触发。
+ * 服务端的心跳探测在此直接回应，其余未匹配到请求的消息（如服务端主动推送）继续向后传递。
+ * <p>
+ * 收到 {@link MessageType#GO_AWAY} 后不再接受新请求，触发 {@link GoAwayEvent}，在途请求全部完成后关闭连接。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/10 15:20 </p>
+ */
+@Slf4j
+public class ResponseCorrelationHandler extends ChannelInboundHandlerAdapter {
+    private final Timer timer;
+    private final LongObjectMap<Pending> inFlight = new LongObjectHashMap<>();
+    private ChannelHandlerContext ctx;
+    private long nextId;
+    /** 在途请求数，仅在 EventLoop 中写入，供其他线程读取 */
+    private volatile int inFlightCount;
+    /** 服务端已通知下线 */
+    private volatile boolean goingAway;
+
+    public ResponseCorrelationHandler(Timer timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * 发送请求，可在任意线程调用
+     * @param message       请求消息，ID 由本处理器分配
+     * @param timeoutMillis 超时时间（毫秒）
+     * @return 响应结果，调用方负责释放响应消息
+     */
+    public CompletableFuture<EasyMessage> request(EasyMessage message, long timeoutMillis) {
+        CompletableFuture<EasyMessage> promise = new CompletableFuture<>();
+        if (ctx == null || !ctx.channel().isActive() || goingAway) {
+            message.release();
+            promise.completeExceptionally(new ClosedChannelException());
+            return promise;
+        }
+        if (ctx.executor().inEventLoop()) {
+            doRequest(message, timeoutMillis, promise);
+        } else {
+            ctx.executor().execute(() -> doRequest(message, timeoutMillis, promise));
+        }
+        return promise;
+    }
+
+    /**
+     * 在途请求数
+     */
+    public int inFlight() {
+        return inFlightCount;
+    }
+
+    /**
+     * 服务端是否已通知下线
+     */
+    public boolean isGoingAway() {
+        return goingAway;
+    }
+
+    private void doRequest(EasyMessage message, long timeoutMillis, CompletableFuture<EasyMessage> promise) {
+        if (goingAway) {
+            message.release();
+            promise.completeExceptionally(new ClosedChannelException());
+            return;
+        }
+        long id = ++nextId;
+        message.setId(id);
+        if (message.getTimestamp() == 0) {
+            message.setTimestamp(System.currentTimeMillis());
+        }
+        Timeout timeout = timer.newTimeout(t -> ctx.executor().execute(() -> expire(id)), timeoutMillis, TimeUnit.MILLISECONDS);
+        inFlight.put(id, new Pending(promise, timeout));
+        inFlightCount = inFlight.size();
+        ctx.writeAndFlush(message).addListener(future -> {
+            if (!future.isSuccess()) {
+                fail(id, future.cause());
+            }
+        });
+    }
+
+    private void expire(long id) {
+        Pending pending = inFlight.remove(id);
+        if (pending != null) {
+            inFlightCount = inFlight.size();
+            pending.promise.completeExceptionally(new TimeoutException("request " + id + " timed out"));
+            closeIfDrained();
+        }
+    }
+
+    private void fail(long id, Throwable cause) {
+        Pending pending = inFlight.remove(id);
+        if (pending != null) {
+            inFlightCount = inFlight.size();
+            pending.timeout.cancel();
+            pending.promise.completeExceptionally(cause);
+            closeIfDrained();
+        }
+    }
+
+    /**
+     * 服务端下线中且在途请求已全部完成时关闭连接
+     */
+    private void closeIfDrained() {
+        if (goingAway && inFlight.isEmpty()) {
+            ctx.close();
+        }
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof EasyMessage message) {
+            if (message.getType() == MessageType.HEART_BEAT && message.getId() == EasyMessage.PROBE_ID) {
+                // 回应服务端的心跳探测
+                message.release();
+                ctx.writeAndFlush(new EasyMessage(MessageVersion.V1, MessageType.HEART_BEAT, EasyMessage.PROBE_ID,
+                        System.currentTimeMillis(), new byte[0]));
+                return;
+            }
+            if (message.getType() == MessageType.GO_AWAY) {
+                message.release();
+                log.info("[ResponseCorrelationHandler] server {} going away, {} request(s) in flight", ctx.channel().remoteAddress(), inFlight.size());
+                goingAway = true;
+                ctx.fireUserEventTriggered(GoAwayEvent.INSTANCE);
+                closeIfDrained();
+                return;
+            }
+            Pending pending = inFlight.remove(message.getId());
+            if (pending != null) {
+                inFlightCount = inFlight.size();
+                pending.timeout.cancel();
+                if (!pending.promise.complete(message)) {
+                    message.release();
+                }
+                closeIfDrained();
+                return;
+            }
+        }
+        ctx.fireChannelRead(msg);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        if (!inFlight.isEmpty()) {
+            ClosedChannelException cause = new ClosedChannelException();
+            for (Pending pending : inFlight.values()) {
+                pending.timeout.cancel();
+                pending.promise.completeExceptionally(cause);
+            }
+            inFlight.clear();
+            inFlightCount = 0;
+        }
+        super.channelInactive(ctx);
+    }
+
+    private record Pending(CompletableFuture<EasyMessage> promise, Timeout timeout) {
+    }
+}
@@ -0,0 +1,258 @@
+package com.zero.nts.client.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zero.nts.client.EasyClient;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.transport.TransportType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.EventLoopGroup;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压测工具
+ * <p>
+ *  - 开环（open-loop）发送：每个请求按目标速率预先排定发送时间，与响应快慢无关，服务端变慢时请求照常发出并堆积；
+ *  - 延迟从计划发送时间开始计算，发送线程落后于计划时（例如被 GC 或服务端背压拖慢）的等待也计入延迟，
+ *    修正了协同遗漏（coordinated omission），另外记录从实际发送开始的延迟作为对照；
+ *  - 延迟以 HdrHistogram 记录，每秒输出一行，结束后输出 JSON 报告；
+ *  - 支持多个速率阶段依次执行，实际速率跟不上目标或出现超时的阶段标记为饱和。
+ * <p>
+ * 运行方式见 pom.xml 中的 load profile，参数见 {@link LoadOptions}。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/23 11:30 </p>
+ */
+@Slf4j
+public class LoadGenerator {
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final LoadOptions options;
+    private final List<EasyClient> clients = new ArrayList<>();
+    /** 所有消息共享的数据体内容，按需截取 */
+    private final byte[] payload;
+    private final AtomicLong cursor = new AtomicLong();
+
+    private final Recorder latency = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+
+    private EventLoopGroup group;
+
+    public LoadGenerator(LoadOptions options) {
+        this.options = options;
+        this.payload = new byte[options.getPayload().max()];
+        ThreadLocalRandom.current().nextBytes(payload);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        LoadReport report = new LoadGenerator(options).run();
+        String json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValueAsString(report);
+        if (options.getReport() == null) {
+            System.out.println(json);
+        } else {
+            Files.writeString(Path.of(options.getReport()), json);
+            log.info("[LoadGenerator] report written to {}", options.getReport());
+        }
+    }
+
+    /**
+     * 建立连接，依次执行所有速率阶段
+     * @return 压测报告
+     */
+    public LoadReport run() throws InterruptedException {
+        connect();
+        try {
+            List<LoadReport.Stage> stages = new ArrayList<>();
+            for (long rate : options.getRates()) {
+                stages.add(runStage(rate));
+            }
+            return new LoadReport(options.getLabel(), options.getHost(), options.getPort(), clients.size(),
+                    options.getPayload().toString(), options.getHeartbeatRatio(), options.getVersion().name(), stages);
+        } finally {
+            clients.forEach(EasyClient::close);
+            group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    private void connect() throws InterruptedException {
+        group = TransportType.AUTO.resolve().newEventLoopGroup(options.getThreads(), null);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, options.getConnectRate());
+        long next = System.nanoTime();
+        int failed = 0;
+        for (int i = 0; i < options.getConnections(); i++) {
+            LockSupport.parkNanos(next - System.nanoTime());
+            next += intervalNanos;
+            EasyClient client = new EasyClient(options.getHost(), options.getPort(), group, EasyClient.sharedTimer());
+            try {
+                clients.add(client.connect());
+            } catch (Exception e) {
+                if (failed++ == 0) {
+                    log.warn("[LoadGenerator] connect failed: {}", e.toString());
+                }
+            }
+        }
+        if (clients.isEmpty()) {
+            throw new IllegalStateException("no connection established to " + options.getHost() + ":" + options.getPort());
+        }
+        log.info("[LoadGenerator] {} connection(s) established, {} failed", clients.size(), failed);
+    }
+
+    private LoadReport.Stage runStage(long rate) throws InterruptedException {
+        long start = System.nanoTime();
+        Window window = new Window(start + options.getWarmup().toNanos(), options.getDuration().toNanos());
+
+        List<Thread> senders = new ArrayList<>();
+        int senderCount = Math.max(1, options.getSenders());
+        for (int i = 0; i < senderCount; i++) {
+            double perSender = (double) rate / senderCount;
+            Thread sender = new Thread(() -> send(start, window, perSender), "nts-load-sender-" + i);
+            sender.setDaemon(true);
+            sender.start();
+            senders.add(sender);
+        }
+
+        Histogram total = new Histogram(3);
+        Histogram totalService = new Histogram(3);
+        Histogram interval = null;
+        Histogram intervalService = null;
+        List<LoadReport.Interval> intervals = new ArrayList<>();
+        // 发送结束后再等待一个超时时长，收齐在途请求的响应或超时
+        long deadline = window.to + options.getTimeout().toNanos();
+        long nextReport = start + REPORT_INTERVAL_NANOS;
+        while (true) {
+            LockSupport.parkNanos(nextReport - System.nanoTime());
+            long now = System.nanoTime();
+            interval = latency.getIntervalHistogram(interval);
+            intervalService = serviceTime.getIntervalHistogram(intervalService);
+            total.add(interval);
+            totalService.add(intervalService);
+            long second = TimeUnit.NANOSECONDS.toSeconds(now - start);
+            if (now <= window.from) {
+                log.info("[LoadGenerator] rate {}/s t={}s warming up", rate, second);
+            } else {
+                log.info("[LoadGenerator] rate {}/s t={}s completed {} p50 {}us p99 {}us max {}us, timeouts {}, errors {}",
+                        rate, second, interval.getTotalCount(), interval.getValueAtPercentile(50),
+                        interval.getValueAtPercentile(99), interval.getMaxValue(), window.timeouts.sum(), window.errors.sum());
+                if (now - REPORT_INTERVAL_NANOS < window.to) {
+                    intervals.add(new LoadReport.Interval(second, interval.getTotalCount(), interval.getValueAtPercentile(50),
+                            interval.getValueAtPercentile(99), interval.getMaxValue()));
+                }
+            }
+            boolean sending = senders.stream().anyMatch(Thread::isAlive);
+            if (!sending && (inFlight() == 0 || now >= deadline)) {
+                break;
+            }
+            nextReport += REPORT_INTERVAL_NANOS;
+        }
+
+        double seconds = options.getDuration().toNanos() / 1e9;
+        long timeouts = window.timeouts.sum();
+        long errors = window.errors.sum();
+        double achieved = window.throughput.sum() / seconds;
+        return new LoadReport.Stage(rate, achieved, achieved < rate * 0.95 || timeouts > 0 || errors > 0, seconds,
+                window.sent.sum(), window.completed.sum(), timeouts, errors,
+                LoadReport.Latency.of(total), LoadReport.Latency.of(totalService), intervals);
+    }
+
+    /**
+     * 按计划时间发送，落后于计划时不等待，立即补发
+     */
+    private void send(long start, Window window, double rate) {
+        double intervalNanos = 1e9 / rate;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= window.to) {
+                return;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // 只统计计划发送时间落在统计窗口内的请求，预热期间的请求照常发送
+            boolean measured = intended >= window.from;
+            EasyClient client = clients.get((int) (cursor.getAndIncrement() % clients.size()));
+            if (!client.isActive()) {
+                if (measured) {
+                    window.errors.increment();
+                }
+                continue;
+            }
+            EasyMessage message;
+            if (random.nextDouble() < options.getHeartbeatRatio()) {
+                // 非探测ID的心跳，服务端原样回应
+                message = EasyMessage.newInstance(options.getVersion(), MessageType.HEART_BEAT, 0, 0, null);
+            } else {
+                int size = options.getPayload().next(random);
+                ByteBuf body = size > 0 ? Unpooled.wrappedBuffer(payload, 0, size) : null;
+                message = EasyMessage.newInstance(options.getVersion(), MessageType.NORMAL, 0, 0, body);
+            }
+            long sentAt = System.nanoTime();
+            if (measured) {
+                window.sent.increment();
+            }
+            client.send(message, options.getTimeout()).whenComplete((response, cause) -> {
+                long now = System.nanoTime();
+                if (cause == null) {
+                    response.release();
+                    if (now >= window.from && now < window.to) {
+                        window.throughput.increment();
+                    }
+                }
+                if (!measured) {
+                    return;
+                }
+                if (cause == null) {
+                    window.completed.increment();
+                    latency.recordValue(TimeUnit.NANOSECONDS.toMicros(now - intended));
+                    serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(now - sentAt));
+                } else if (cause instanceof TimeoutException) {
+                    window.timeouts.increment();
+                } else {
+                    window.errors.increment();
+                }
+            });
+        }
+    }
+
+    /**
+     * 阶段的统计窗口 [from, to)
+     */
+    private static final class Window {
+        final long from;
+        final long to;
+        /** 窗口内计划发送的请求数 */
+        final LongAdder sent = new LongAdder();
+        /** 窗口内计划发送且收到响应的请求数 */
+        final LongAdder completed = new LongAdder();
+        final LongAdder timeouts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        /** 窗口内收到的响应数（不论何时发送），用于计算实际速率 */
+        final LongAdder throughput = new LongAdder();
+
+        Window(long from, long durationNanos) {
+            this.from = from;
+            this.to = from + durationNanos;
+        }
+    }
+
+    private long inFlight() {
+        return clients.stream().mapToLong(EasyClient::inFlight).sum();
+    }
+}
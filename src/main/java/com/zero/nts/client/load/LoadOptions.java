@@ -0,0 +1,80 @@
+package com.zero.nts.client.load;
+
+import com.zero.nts.message.MessageVersion;
+import lombok.Data;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 压测参数，命令行以 {@code -name=value} 传入，时长支持 {@code 30s}、{@code 2m} 等写法
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/23 10:20 </p>
+ */
+@Data
+public class LoadOptions {
+    /** 服务地址 */
+    private String host = "127.0.0.1";
+    /** 服务端口 */
+    private int port = 9879;
+    /** 连接数 */
+    private int connections = 100;
+    /** 每秒建立的连接数，避免瞬间大量握手被服务端准入控制拒绝 */
+    private int connectRate = 1000;
+    /** 各阶段的目标速率（消息/秒），依次执行，用于逐步加压寻找饱和点 */
+    private List<Long> rates = List.of(10_000L);
+    /** 每个阶段的统计时长 */
+    private Duration duration = Duration.ofSeconds(30);
+    /** 每个阶段开始后不计入统计的预热时长 */
+    private Duration warmup = Duration.ofSeconds(5);
+    /** 数据体大小分布 */
+    private PayloadDistribution payload = PayloadDistribution.parse("128");
+    /** 心跳消息占比 */
+    private double heartbeatRatio = 0.05;
+    /** 协议版本，V2 可测试压缩 */
+    private MessageVersion version = MessageVersion.V1;
+    /** EventLoop 线程数，0 表示默认值 */
+    private int threads = 0;
+    /** 发送线程数，速率平均分配 */
+    private int senders = 1;
+    /** 请求超时时间 */
+    private Duration timeout = Duration.ofSeconds(5);
+    /** 报告标签，例如被测服务端的配置名 */
+    private String label = "";
+    /** JSON 报告输出文件，为空时输出到标准输出 */
+    private String report;
+
+    public static LoadOptions parse(String... args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            String option = arg.replaceFirst("^-+", "");
+            int index = option.indexOf('=');
+            if (index <= 0) {
+                throw new IllegalArgumentException("Invalid option: " + arg + ", expected -name=value");
+            }
+            String value = option.substring(index + 1);
+            switch (option.substring(0, index)) {
+                case "host" -> options.host = value;
+                case "port" -> options.port = Integer.parseInt(value);
+                case "connections" -> options.connections = Integer.parseInt(value);
+                case "connect-rate" -> options.connectRate = Integer.parseInt(value);
+                case "rate", "rates" -> options.rates = Arrays.stream(value.split(",")).map(String::trim).map(Long::valueOf).toList();
+                case "duration" -> options.duration = DurationStyle.detectAndParse(value);
+                case "warmup" -> options.warmup = DurationStyle.detectAndParse(value);
+                case "payload" -> options.payload = PayloadDistribution.parse(value);
+                case "heartbeat-ratio" -> options.heartbeatRatio = Double.parseDouble(value);
+                case "version" -> options.version = MessageVersion.valueOf(value.toUpperCase());
+                case "threads" -> options.threads = Integer.parseInt(value);
+                case "senders" -> options.senders = Integer.parseInt(value);
+                case "timeout" -> options.timeout = DurationStyle.detectAndParse(value);
+                case "label" -> options.label = value;
+                case "report" -> options.report = value;
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,66 @@
+package com.zero.nts.client.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.List;
+
+/**
+ * 压测报告，序列化为 JSON 供脚本比较不同配置的结果，延迟单位为微秒
+ *
+ * @param label          报告标签
+ * @param host           服务地址
+ * @param port           服务端口
+ * @param connections    成功建立的连接数
+ * @param payload        数据体大小分布
+ * @param heartbeatRatio 心跳消息占比
+ * @param version        协议版本
+ * @param stages         各阶段结果
+ * @author Zero.
+ * <p> Created on 2025/6/23 11:02 </p>
+ */
+public record LoadReport(String label, String host, int port, int connections, String payload, double heartbeatRatio,
+                         String version, List<Stage> stages) {
+
+    /**
+     * 单个速率阶段的结果
+     *
+     * @param targetRate   目标速率（消息/秒）
+     * @param achievedRate 实际完成速率（消息/秒）
+     * @param saturated    实际完成速率低于目标的 95% 或出现超时，视为已饱和
+     * @param seconds      统计时长
+     * @param sent         发出的请求数
+     * @param completed    收到响应的请求数
+     * @param timeouts     超时的请求数
+     * @param errors       其他失败的请求数（连接断开、写失败等）
+     * @param latency      按计划发送时间计算的延迟（修正了协同遗漏）
+     * @param serviceTime  按实际发送时间计算的延迟（未修正，仅供对照）
+     * @param intervals    每秒的统计
+     */
+    public record Stage(long targetRate, double achievedRate, boolean saturated, double seconds, long sent, long completed,
+                        long timeouts, long errors, Latency latency, Latency serviceTime, List<Interval> intervals) {
+    }
+
+    /**
+     * 延迟分布
+     */
+    public record Latency(long count, double mean, long p50, long p90, long p99, long p999, long p9999, long max) {
+        static Latency of(Histogram histogram) {
+            return new Latency(histogram.getTotalCount(), histogram.getMean(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90),
+                    histogram.getValueAtPercentile(99), histogram.getValueAtPercentile(99.9),
+                    histogram.getValueAtPercentile(99.99), histogram.getMaxValue());
+        }
+    }
+
+    /**
+     * 每秒的统计
+     *
+     * @param second    阶段开始后的秒数
+     * @param completed 本秒完成的请求数
+     * @param p50       延迟中位数
+     * @param p99       延迟 99 分位
+     * @param max       最大延迟
+     */
+    public record Interval(long second, long completed, long p50, long p99, long max) {
+    }
+}
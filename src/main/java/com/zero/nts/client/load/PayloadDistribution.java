@@ -0,0 +1,91 @@
+package com.zero.nts.client.load;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * 压测消息的数据体大小分布，支持三种写法：
+ *  - {@code 128}：固定大小；
+ *  - {@code 64-4096}：区间内均匀分布；
+ *  - {@code 128*80,1024*15,65536*5}：按权重选取（大小*权重）。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/23 10:05 </p>
+ */
+public final class PayloadDistribution {
+    private final String spec;
+    private final int[] sizes;
+    /** 累计权重，与 sizes 一一对应；均匀分布时为 null */
+    private final int[] cumulativeWeights;
+
+    private PayloadDistribution(String spec, int[] sizes, int[] cumulativeWeights) {
+        this.spec = spec;
+        this.sizes = sizes;
+        this.cumulativeWeights = cumulativeWeights;
+    }
+
+    public static PayloadDistribution parse(String spec) {
+        String value = spec.trim();
+        if (value.contains("*") || value.contains(",")) {
+            String[] items = value.split(",");
+            int[] sizes = new int[items.length];
+            int[] weights = new int[items.length];
+            int total = 0;
+            for (int i = 0; i < items.length; i++) {
+                String[] pair = items[i].trim().split("\\*");
+                sizes[i] = size(pair[0]);
+                total += pair.length > 1 ? Integer.parseInt(pair[1].trim()) : 1;
+                weights[i] = total;
+            }
+            return new PayloadDistribution(value, sizes, weights);
+        }
+        int dash = value.indexOf('-');
+        if (dash > 0) {
+            int min = size(value.substring(0, dash));
+            int max = size(value.substring(dash + 1));
+            if (max < min) {
+                throw new IllegalArgumentException("Invalid payload range: " + spec);
+            }
+            return new PayloadDistribution(value, new int[]{min, max}, null);
+        }
+        int size = size(value);
+        return new PayloadDistribution(value, new int[]{size}, new int[]{1});
+    }
+
+    private static int size(String value) {
+        int size = Integer.parseInt(value.trim());
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative payload size: " + value);
+        }
+        return size;
+    }
+
+    /**
+     * 按分布取一个数据体大小
+     * @param random 随机数生成器
+     * @return 字节数
+     */
+    public int next(RandomGenerator random) {
+        if (cumulativeWeights == null) {
+            return random.nextInt(sizes[0], sizes[1] + 1);
+        }
+        if (sizes.length == 1) {
+            return sizes[0];
+        }
+        int point = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, point + 1);
+        return sizes[index >= 0 ? index : -index - 1];
+    }
+
+    /**
+     * @return 可能出现的最大数据体
+     */
+    public int max() {
+        return Arrays.stream(sizes).max().orElse(0);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
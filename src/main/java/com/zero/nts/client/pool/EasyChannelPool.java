@@ -0,0 +1,367 @@
+package com.zero.nts.client.pool;
+
+import com.zero.nts.client.EasyClient;
+import com.zero.nts.client.handler.EasyClientHandler;
+import com.zero.nts.client.handler.GoAwayEvent;
+import com.zero.nts.client.handler.ResponseCorrelationHandler;
+import com.zero.nts.codec.EasyDecoder;
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.transport.TransportType;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.AttributeKey;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 面向单个服务端的多路复用连接池
+ * <p>
+ * 与 {@link io.netty.channel.pool.FixedChannelPool} 独占式借用不同，这里的连接可被多个请求共享：
+ * {@link #acquire()} 返回当前在途请求最少的连接，所有连接的在途请求都达到
+ * {@link EasyPoolConfig#getMaxInFlightPerConnection()} 且未达到最大连接数时新建连接。
+ * 连接数维持在 [minConnections, maxConnections] 之间，并定期通过心跳检查健康状态，不健康的连接会被关闭替换。
+ * <p>
+ * 每次 {@link #acquire()} 对应一次 {@link #release(Channel)}；连接上没有在途请求时再次释放不做任何事，
+ * 释放不属于本连接池的连接时返回失败的 Future（与 {@link io.netty.channel.pool.SimpleChannelPool} 一致）。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/12 10:45 </p>
+ */
+@Slf4j
+public class EasyChannelPool implements ChannelPool {
+    private static final AttributeKey<Connection> CONNECTION = AttributeKey.valueOf("nts.poolConnection");
+    /** 达到最大连接数且没有可用连接时，重试获取的间隔 */
+    private static final long RETRY_INTERVAL_MILLIS = 1;
+
+    private final EasyPoolConfig config;
+    private final EventLoopGroup group;
+    private final boolean ownsGroup;
+    private final Bootstrap bootstrap;
+    private final ChannelHealthChecker healthChecker;
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final AtomicInteger pendingConnects = new AtomicInteger();
+    private final PoolMetrics metrics = new PoolMetrics(this);
+    private final ScheduledFuture<?> healthCheckTask;
+    private volatile boolean closed;
+
+    public EasyChannelPool(String host, int port, EasyPoolConfig config) {
+        this(host, port, config, null, EasyClient.sharedTimer());
+    }
+
+    /**
+     * @param host   服务端地址
+     * @param port   服务端端口
+     * @param config 连接池配置
+     * @param group  共享的事件循环，为 null 时连接池自行创建并在关闭时释放
+     * @param timer  请求超时定时器
+     */
+    public EasyChannelPool(String host, int port, EasyPoolConfig config, EventLoopGroup group, Timer timer) {
+        TransportType transport = TransportType.AUTO.resolve();
+        this.config = config;
+        this.ownsGroup = group == null;
+        this.group = group == null ? transport.newEventLoopGroup(0, null) : group;
+        this.healthChecker = new HeartbeatHealthChecker(config.getHealthCheckTimeout().toMillis());
+        this.bootstrap = new Bootstrap()
+                .group(this.group)
+                .channel(transport.socketChannelClass())
+                .remoteAddress(host, port)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.getConnectTimeout().toMillis())
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) throws Exception {
+                        ch.pipeline()
+                                .addLast(new EasyDecoder())
+                                .addLast(new EasyEncoder())
+                                .addLast(new ResponseCorrelationHandler(timer))
+                                .addLast(new ChannelInboundHandlerAdapter() {
+                                    @Override
+                                    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+                                        if (evt == GoAwayEvent.INSTANCE) {
+                                            retire(ctx.channel());
+                                        }
+                                        super.userEventTriggered(ctx, evt);
+                                    }
+                                })
+                                .addLast(new EasyClientHandler());
+                    }
+                });
+        ensureMinConnections();
+        long interval = config.getHealthCheckInterval().toMillis();
+        this.healthCheckTask = this.group.next().scheduleAtFixedRate(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 通过连接池发送请求，自动选择在途请求最少的连接
+     * @param message 请求消息
+     * @return 响应结果，调用方负责释放响应消息
+     */
+    public CompletableFuture<EasyMessage> send(EasyMessage message) {
+        CompletableFuture<EasyMessage> result = new CompletableFuture<>();
+        acquire().addListener(f -> {
+            if (!f.isSuccess()) {
+                message.release();
+                result.completeExceptionally(f.cause());
+                return;
+            }
+            Channel channel = (Channel) f.getNow();
+            ResponseCorrelationHandler handler = channel.pipeline().get(ResponseCorrelationHandler.class);
+            if (handler == null) {
+                release(channel);
+                message.release();
+                result.completeExceptionally(new IllegalStateException("channel closed"));
+                return;
+            }
+            handler.request(message, config.getRequestTimeout().toMillis()).whenComplete((response, cause) -> {
+                release(channel);
+                if (cause != null) {
+                    result.completeExceptionally(cause);
+                } else if (!result.complete(response)) {
+                    response.release();
+                }
+            });
+        });
+        return result;
+    }
+
+    @Override
+    public Future<Channel> acquire() {
+        return acquire(group.next().newPromise());
+    }
+
+    @Override
+    public Future<Channel> acquire(Promise<Channel> promise) {
+        doAcquire(promise, System.nanoTime());
+        return promise;
+    }
+
+    private void doAcquire(Promise<Channel> promise, long startNanos) {
+        if (closed) {
+            promise.tryFailure(new IllegalStateException("pool closed"));
+            return;
+        }
+        Connection best = leastLoaded();
+        if (best != null && best.leased.get() < config.getMaxInFlightPerConnection()) {
+            lease(best, promise, startNanos);
+            return;
+        }
+        if (reserveConnect()) {
+            connect().addListener((ChannelFuture f) -> {
+                Connection created = f.isSuccess() ? f.channel().attr(CONNECTION).get() : null;
+                if (created != null) {
+                    lease(created, promise, startNanos);
+                } else if (best != null && best.channel.isActive()) {
+                    // 扩容失败时退回到已有连接
+                    lease(best, promise, startNanos);
+                } else {
+                    metrics.recordAcquireFailure();
+                    promise.tryFailure(f.cause());
+                }
+            });
+            return;
+        }
+        if (best != null) {
+            // 已达到最大连接数，在负载最低的连接上继续多路复用
+            lease(best, promise, startNanos);
+            return;
+        }
+        // 连接均在建立中，稍后重试
+        if (System.nanoTime() - startNanos > config.getConnectTimeout().toNanos()) {
+            metrics.recordAcquireFailure();
+            promise.tryFailure(new TimeoutException("acquire timed out"));
+            return;
+        }
+        group.next().schedule(() -> doAcquire(promise, startNanos), RETRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void lease(Connection connection, Promise<Channel> promise, long startNanos) {
+        connection.leased.incrementAndGet();
+        if (promise.trySuccess(connection.channel)) {
+            metrics.recordAcquire(System.nanoTime() - startNanos);
+        } else {
+            connection.leased.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Future<Void> release(Channel channel) {
+        return release(channel, channel.eventLoop().newPromise());
+    }
+
+    @Override
+    public Future<Void> release(Channel channel, Promise<Void> promise) {
+        Connection connection = channel.attr(CONNECTION).get();
+        if (connection == null || connection.pool != this) {
+            return promise.setFailure(new IllegalArgumentException("Channel " + channel + " was not acquired from this ChannelPool"));
+        }
+        connection.release();
+        return promise.setSuccess(null);
+    }
+
+    private Connection leastLoaded() {
+        Connection best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (Connection connection : connections) {
+            int load = connection.leased.get();
+            if (load < bestLoad && connection.channel.isActive()) {
+                best = connection;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    private boolean reserveConnect() {
+        while (true) {
+            int pending = pendingConnects.get();
+            if (connections.size() + pending >= config.getMaxConnections()) {
+                return false;
+            }
+            if (pendingConnects.compareAndSet(pending, pending + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 新建连接，调用前需通过 {@link #reserveConnect()} 占用名额
+     */
+    private ChannelFuture connect() {
+        ChannelFuture future = bootstrap.connect();
+        future.addListener((ChannelFuture f) -> {
+            pendingConnects.decrementAndGet();
+            if (!f.isSuccess()) {
+                log.warn("[EasyChannelPool] connect to {} failed: {}", bootstrap.config().remoteAddress(), f.cause().getMessage());
+                return;
+            }
+            Channel channel = f.channel();
+            Connection connection = new Connection(this, channel);
+            channel.attr(CONNECTION).set(connection);
+            connections.add(connection);
+            metrics.recordConnectionCreated();
+            channel.closeFuture().addListener(cf -> connections.remove(connection));
+            if (closed) {
+                channel.close();
+            }
+        });
+        return future;
+    }
+
+    private void ensureMinConnections() {
+        while (!closed && connections.size() + pendingConnects.get() < config.getMinConnections() && reserveConnect()) {
+            connect();
+        }
+    }
+
+    /**
+     * 服务端通知下线的连接不再分配新请求（在途请求完成后由 {@link ResponseCorrelationHandler} 关闭），并补足连接
+     */
+    private void retire(Channel channel) {
+        Connection connection = channel.attr(CONNECTION).get();
+        if (connection != null && connections.remove(connection)) {
+            log.info("[EasyChannelPool] connection retired by server: {}", channel);
+            ensureMinConnections();
+        }
+    }
+
+    private void checkHealth() {
+        for (Connection connection : connections) {
+            healthChecker.isHealthy(connection.channel).addListener(f -> {
+                if (!f.isSuccess() || !Boolean.TRUE.equals(f.getNow())) {
+                    log.warn("[EasyChannelPool] unhealthy connection closed: {}", connection.channel);
+                    metrics.recordUnhealthy();
+                    connections.remove(connection);
+                    connection.channel.close();
+                    ensureMinConnections();
+                }
+            });
+        }
+        ensureMinConnections();
+    }
+
+    public EasyPoolConfig config() {
+        return config;
+    }
+
+    public PoolMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * 服务端地址
+     */
+    public SocketAddress remoteAddress() {
+        return bootstrap.config().remoteAddress();
+    }
+
+    /**
+     * 当前连接数
+     */
+    public int connections() {
+        return connections.size();
+    }
+
+    /**
+     * 所有连接的在途请求总数
+     */
+    public int inFlight() {
+        int total = 0;
+        for (Connection connection : connections) {
+            total += connection.leased.get();
+        }
+        return total;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        healthCheckTask.cancel(false);
+        for (Connection connection : connections) {
+            connection.channel.close();
+        }
+        connections.clear();
+        if (ownsGroup) {
+            group.shutdownGracefully();
+        }
+    }
+
+    private static final class Connection {
+        final EasyChannelPool pool;
+        final Channel channel;
+        /** 已借出（在途）的请求数 */
+        final AtomicInteger leased = new AtomicInteger();
+
+        Connection(EasyChannelPool pool, Channel channel) {
+            this.pool = pool;
+            this.channel = channel;
+        }
+
+        /**
+         * 归还一次借用，没有在途请求时不做任何事，计数不会变为负数
+         */
+        void release() {
+            leased.getAndUpdate(count -> count > 0 ? count - 1 : 0);
+        }
+    }
+}
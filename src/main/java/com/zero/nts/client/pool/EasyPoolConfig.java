@@ -0,0 +1,43 @@
+package com.zero.nts.client.pool;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * 连接池配置
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/12 10:10 </p>
+ */
+@Data
+public class EasyPoolConfig {
+    /**
+     * 每个服务端保持的最小连接数
+     */
+    private int minConnections = 1;
+    /**
+     * 每个服务端的最大连接数
+     */
+    private int maxConnections = 8;
+    /**
+     * 单个连接的在途请求数达到该值后优先新建连接（未达到最大连接数时）
+     */
+    private int maxInFlightPerConnection = 256;
+    /**
+     * 心跳健康检查间隔
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    /**
+     * 心跳响应超时时间，超时的连接视为不健康并关闭
+     */
+    private Duration healthCheckTimeout = Duration.ofSeconds(3);
+    /**
+     * 请求超时时间
+     */
+    private Duration requestTimeout = Duration.ofSeconds(5);
+    /**
+     * 建立连接超时时间
+     */
+    private Duration connectTimeout = Duration.ofSeconds(3);
+}
@@ -0,0 +1,41 @@
+package com.zero.nts.client.pool;
+
+import com.zero.nts.client.handler.ResponseCorrelationHandler;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.channel.Channel;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
+
+/**
+ * 基于 {@link MessageType#HEART_BEAT} 的健康检查：发送心跳并在超时时间内收到服务端回应视为健康
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/12 10:31 </p>
+ */
+public class HeartbeatHealthChecker implements ChannelHealthChecker {
+    private final long timeoutMillis;
+
+    public HeartbeatHealthChecker(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public Future<Boolean> isHealthy(Channel channel) {
+        Promise<Boolean> promise = channel.eventLoop().newPromise();
+        ResponseCorrelationHandler handler = channel.pipeline().get(ResponseCorrelationHandler.class);
+        if (!channel.isActive() || handler == null) {
+            return promise.setSuccess(Boolean.FALSE);
+        }
+        EasyMessage heartbeat = new EasyMessage(MessageVersion.V1, MessageType.HEART_BEAT, 0, 0, new byte[0]);
+        handler.request(heartbeat, timeoutMillis).whenComplete((pong, cause) -> {
+            if (pong != null) {
+                pong.release();
+            }
+            promise.trySuccess(cause == null);
+        });
+        return promise;
+    }
+}
@@ -0,0 +1,118 @@
+package com.zero.nts.client.pool;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接池指标
+ * <p>
+ * 实现 {@link MeterBinder}，调用 {@link #bindTo(MeterRegistry)} 即可通过 Micrometer 暴露，以 remote 标签区分连接池。
+ * 获取连接的耗时记录在 nts.pool.acquire.latency {@link Timer} 中（带百分位直方图，最大值随时间窗口衰减），
+ * 绑定之前的获取只计数，不记录耗时。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/12 10:18 </p>
+ */
+public class PoolMetrics implements MeterBinder {
+    private final EasyChannelPool pool;
+    private final LongAdder acquireCount = new LongAdder();
+    /** 每个绑定的注册表一个 Timer，通常只有一个 */
+    private final List<Timer> acquireLatency = new CopyOnWriteArrayList<>();
+    private final LongAdder acquireFailures = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder unhealthyClosed = new LongAdder();
+
+    PoolMetrics(EasyChannelPool pool) {
+        this.pool = pool;
+    }
+
+    void recordAcquire(long nanos) {
+        acquireCount.increment();
+        for (Timer timer : acquireLatency) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    void recordAcquireFailure() {
+        acquireFailures.increment();
+    }
+
+    void recordConnectionCreated() {
+        connectionsCreated.increment();
+    }
+
+    void recordUnhealthy() {
+        unhealthyClosed.increment();
+    }
+
+    /**
+     * 成功获取连接的次数
+     */
+    public long acquireCount() {
+        return acquireCount.sum();
+    }
+
+    public long acquireFailures() {
+        return acquireFailures.sum();
+    }
+
+    public long connectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    /**
+     * 因健康检查失败而关闭的连接数
+     */
+    public long unhealthyClosed() {
+        return unhealthyClosed.sum();
+    }
+
+    /**
+     * 当前连接数
+     */
+    public int connections() {
+        return pool.connections();
+    }
+
+    /**
+     * 所有连接的在途请求总数
+     */
+    public int inFlight() {
+        return pool.inFlight();
+    }
+
+    /**
+     * 利用率：在途请求数 / (连接数 * 单连接在途上限)
+     */
+    public double utilization() {
+        int capacity = pool.connections() * pool.config().getMaxInFlightPerConnection();
+        return capacity == 0 ? 0 : (double) pool.inFlight() / capacity;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Tags tags = Tags.of("remote", String.valueOf(pool.remoteAddress()));
+        FunctionCounter.builder("nts.pool.acquire", this, PoolMetrics::acquireCount).tags(tags).register(registry);
+        FunctionCounter.builder("nts.pool.acquire.failures", this, PoolMetrics::acquireFailures).tags(tags).register(registry);
+        FunctionCounter.builder("nts.pool.connections.created", this, PoolMetrics::connectionsCreated).tags(tags).register(registry);
+        FunctionCounter.builder("nts.pool.connections.unhealthy", this, PoolMetrics::unhealthyClosed).tags(tags).register(registry);
+        acquireLatency.add(Timer.builder("nts.pool.acquire.latency")
+                .description("Time to acquire a pooled connection")
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .publishPercentileHistogram()
+                .register(registry));
+        Gauge.builder("nts.pool.connections", this, PoolMetrics::connections).tags(tags).register(registry);
+        Gauge.builder("nts.pool.in.flight", this, PoolMetrics::inFlight).tags(tags).register(registry);
+        Gauge.builder("nts.pool.utilization", this, PoolMetrics::utilization).tags(tags).register(registry);
+    }
+}
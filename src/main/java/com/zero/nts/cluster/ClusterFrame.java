@@ -0,0 +1,85 @@
+package com.zero.nts.cluster;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 节点间 {@link com.zero.nts.message.MessageType#CLUSTER} 报文的数据体格式：
+ * <pre>
+ * | 来源节点ID (short 长度 + UTF-8) | 集群密钥 (short 长度 + 字节) | 条目 | 条目 | ...
+ * 条目：| op (1) | 会话ID (short 长度 + UTF-8) | 报文长度 (int) | 已编码的报文 |
+ * </pre>
+ * 会话归属变更与转发的消息按产生顺序混合在同一批次中，接收方按顺序处理。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/22 10:30 </p>
+ */
+final class ClusterFrame {
+    /** 会话在来源节点上线 */
+    static final byte BIND = 1;
+    /** 会话在来源节点下线 */
+    static final byte UNBIND = 2;
+    /** 发给指定会话的报文 */
+    static final byte SEND = 3;
+    /** 广播给接收节点所有连接的报文 */
+    static final byte BROADCAST = 4;
+
+    private ClusterFrame() {
+    }
+
+    /**
+     * 待发送的条目
+     * @param op        操作
+     * @param sessionId 会话ID，广播时为空串
+     * @param frame     已编码的报文，会话变更时为 null
+     */
+    record Entry(byte op, String sessionId, ByteBuf frame) {
+        void release() {
+            if (frame != null) {
+                frame.release();
+            }
+        }
+    }
+
+    static void writeString(ByteBuf buf, String value) {
+        int lengthIndex = buf.writerIndex();
+        buf.writeShort(0);
+        int length = ByteBufUtil.writeUtf8(buf, value);
+        buf.setShort(lengthIndex, length);
+    }
+
+    static String readString(ByteBuf buf) {
+        int length = buf.readUnsignedShort();
+        return buf.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    static void writeBytes(ByteBuf buf, byte[] value) {
+        buf.writeShort(value.length).writeBytes(value);
+    }
+
+    static byte[] readBytes(ByteBuf buf) {
+        byte[] value = new byte[buf.readUnsignedShort()];
+        buf.readBytes(value);
+        return value;
+    }
+
+    /**
+     * 写出条目，报文随之释放
+     */
+    static void writeEntry(ByteBuf buf, Entry entry) {
+        buf.writeByte(entry.op());
+        writeString(buf, entry.sessionId());
+        ByteBuf frame = entry.frame();
+        if (frame == null) {
+            buf.writeInt(0);
+            return;
+        }
+        try {
+            buf.writeInt(frame.readableBytes()).writeBytes(frame, frame.readerIndex(), frame.readableBytes());
+        } finally {
+            frame.release();
+        }
+    }
+}
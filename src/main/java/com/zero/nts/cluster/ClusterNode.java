@@ -0,0 +1,301 @@
+package com.zero.nts.cluster;
+
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.server.broadcast.BroadcastEngine;
+import com.zero.nts.server.session.SessionListener;
+import com.zero.nts.server.session.SessionRegistry;
+import com.zero.nts.transport.TransportType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.AttributeKey;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 集群节点
+ * <p>
+ * 多个服务端实例部署在负载均衡之后时，客户端可能连接在任意一个节点上。开启集群模式后：
+ *  - 每个节点主动连接配置的所有其他节点（{@link PeerLink}，单向、断开自动重连），节点间报文使用 {@link MessageType#CLUSTER}；
+ *  - 会话在本节点上线/下线时，通过所有连接通知其他节点，连接（重新）建立时同步本节点的全部会话；
+ *  - {@link #sendTo(String, EasyMessage)} 目标会话不在本节点时，编码后转发给会话所在的节点，由其直接写给客户端；
+ *  - {@link #broadcast(EasyMessage)} 本节点广播的同时，编码一次转发给所有其他节点在各自节点内广播（不再二次转发）。
+ * 转发与会话变更在每个连接上批量合并发送，不需要额外的消息中间件。
+ * <p>
+ * 节点间报文与客户端共用服务端口，因此只接受来自已配置节点的 {@link MessageType#CLUSTER} 报文：
+ * 报文必须携带集群共享密钥，声明的来源节点必须在 peers 中，且连接的对端 IP 必须是该节点的地址之一；
+ * 未开启集群模式或校验不通过时关闭连接。节点地址在启动时解析并缓存，到该节点的连接重新建立时刷新，
+ * 校验只查缓存，不在 worker 线程上做 DNS 解析。校验通过后来源节点记录在连接上，同一连接只能代表一个节点。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/22 13:20 </p>
+ */
+@Slf4j
+@Component
+public class ClusterNode implements SessionListener {
+    private final NettyProperties.Cluster cluster;
+    private final TransportType transport;
+    private final SessionRegistry sessionRegistry;
+    private final BroadcastEngine broadcastEngine;
+    private final EasyEncoder encoder;
+    private final ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+    private final String nodeId;
+    private final byte[] secret;
+
+    /** 节点ID -> 到该节点的连接 */
+    private final Map<String, PeerLink> links = new ConcurrentHashMap<>();
+    /** 其他节点上的会话：会话ID -> 节点ID */
+    private final Map<String, String> owners = new ConcurrentHashMap<>();
+    /** 已通过校验的连接所属的节点ID */
+    private static final AttributeKey<String> PEER = AttributeKey.valueOf("nts.clusterPeer");
+
+    /** 节点ID -> 该节点主机名解析出的地址 */
+    private final Map<String, Set<InetAddress>> peerAddresses = new ConcurrentHashMap<>();
+
+    /** 节点ID -> 该节点发来会话变更所使用的连接，连接断开时清除该节点的会话 */
+    private final Map<String, Channel> sources = new ConcurrentHashMap<>();
+
+    private EventLoopGroup group;
+
+    public ClusterNode(NettyProperties properties, SessionRegistry sessionRegistry, BroadcastEngine broadcastEngine) {
+        this.cluster = properties.getCluster();
+        this.transport = properties.getTransport().resolve();
+        this.sessionRegistry = sessionRegistry;
+        this.broadcastEngine = broadcastEngine;
+        NettyProperties.Codec codec = properties.getCodec();
+        this.encoder = new EasyEncoder(codec.getCompositeThreshold(), codec.getCompression(), codec.getCompressionThreshold(),
+                codec.getMaxDecompressedSize());
+        this.nodeId = cluster.getNodeId() != null ? cluster.getNodeId() : properties.getHost() + ":" + properties.getPort();
+        this.secret = cluster.getSecret() == null ? new byte[0] : cluster.getSecret().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!cluster.isEnabled()) {
+            return;
+        }
+        if (secret.length == 0) {
+            throw new IllegalStateException("netty.cluster.secret must be set when the cluster is enabled");
+        }
+        group = transport.newEventLoopGroup(1, null);
+        for (String peer : cluster.getPeers()) {
+            if (peer.equals(nodeId)) {
+                continue;
+            }
+            resolve(peer);
+            PeerLink link = new PeerLink(nodeId, secret, peer, group, transport.socketChannelClass(),
+                    cluster.getReconnectDelay().toMillis(), cluster.getMaxBatchBytes(), this::synchronize);
+            links.put(peer, link);
+            link.connect();
+        }
+        sessionRegistry.addListener(this);
+        log.info("[ClusterNode] node {} started with peers {}", nodeId, links.keySet());
+    }
+
+    @PreDestroy
+    public void stop() {
+        links.values().forEach(PeerLink::close);
+        links.clear();
+        if (group != null) {
+            group.shutdownGracefully();
+        }
+    }
+
+    /**
+     * 向指定会话发送消息，会话可以在任意节点上
+     * @param sessionId 会话ID
+     * @param message   消息，所有权转移
+     * @return 已写出或已转发返回 true，会话不在线或所在节点不可达返回 false
+     */
+    public boolean sendTo(String sessionId, EasyMessage message) {
+        if (sessionRegistry.channel(sessionId) != null) {
+            return sessionRegistry.sendTo(sessionId, message);
+        }
+        try {
+            String owner = owners.get(sessionId);
+            PeerLink link = owner == null ? null : links.get(owner);
+            return link != null && link.offer(ClusterFrame.SEND, sessionId, encoder.encode(alloc, message));
+        } finally {
+            message.release();
+        }
+    }
+
+    /**
+     * 向整个集群的所有连接广播
+     * @param message 消息，调用方仍持有其所有权
+     * @return 本节点投递的连接数
+     */
+    public int broadcast(EasyMessage message) {
+        int delivered = broadcastEngine.broadcast(message);
+        if (!links.isEmpty()) {
+            ByteBuf frame = encoder.encode(alloc, message);
+            try {
+                for (PeerLink link : links.values()) {
+                    link.offer(ClusterFrame.BROADCAST, "", frame.retainedDuplicate());
+                }
+            } finally {
+                frame.release();
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * 处理其他节点发来的 {@link MessageType#CLUSTER} 报文
+     * @param channel 报文来源连接
+     * @param message 报文，调用方负责释放
+     */
+    public void receive(Channel channel, EasyMessage message) {
+        ByteBuf body = message.getPayload() != null ? message.getPayload().duplicate()
+                : message.getData() != null ? Unpooled.wrappedBuffer(message.getData()) : null;
+        if (body == null || !body.isReadable()) {
+            return;
+        }
+        String origin = ClusterFrame.readString(body);
+        byte[] token = ClusterFrame.readBytes(body);
+        if (!authorize(channel, origin, token)) {
+            log.warn("[ClusterNode] reject cluster frame claiming node {} from {}", origin, channel.remoteAddress());
+            channel.close();
+            return;
+        }
+        track(origin, channel);
+        while (body.isReadable()) {
+            byte op = body.readByte();
+            String sessionId = ClusterFrame.readString(body);
+            int length = body.readInt();
+            ByteBuf frame = length > 0 ? body.readSlice(length) : null;
+            switch (op) {
+                case ClusterFrame.BIND -> owners.put(sessionId, origin);
+                case ClusterFrame.UNBIND -> owners.remove(sessionId, origin);
+                case ClusterFrame.SEND -> {
+                    if (frame != null) {
+                        sessionRegistry.sendTo(sessionId, frame.retain());
+                    }
+                }
+                case ClusterFrame.BROADCAST -> {
+                    if (frame != null) {
+                        broadcastEngine.broadcast(frame);
+                    }
+                }
+                default -> log.warn("[ClusterNode] unknown cluster op {} from {}", op, origin);
+            }
+        }
+    }
+
+    /**
+     * 校验报文来源：集群模式已开启、密钥一致、声明的节点在 peers 中、连接的对端 IP 属于该节点，
+     * 同一连接只能代表一个节点
+     */
+    private boolean authorize(Channel channel, String origin, byte[] token) {
+        if (!cluster.isEnabled() || !MessageDigest.isEqual(secret, token)) {
+            return false;
+        }
+        String peer = channel.attr(PEER).get();
+        if (peer != null) {
+            return peer.equals(origin);
+        }
+        Set<InetAddress> addresses = peerAddresses.get(origin);
+        if (addresses == null || !(channel.remoteAddress() instanceof InetSocketAddress remote)
+                || !addresses.contains(remote.getAddress())) {
+            return false;
+        }
+        channel.attr(PEER).set(origin);
+        return true;
+    }
+
+    /**
+     * 解析节点主机名并更新地址缓存，解析失败时保留上一次的结果
+     */
+    private void resolve(String peer) {
+        try {
+            String host = peer.substring(0, peer.lastIndexOf(':'));
+            peerAddresses.put(peer, Set.copyOf(Arrays.asList(InetAddress.getAllByName(host))));
+        } catch (UnknownHostException e) {
+            log.warn("[ClusterNode] could not resolve node {}: {}", peer, e.toString());
+        }
+    }
+
+    /**
+     * 记录节点的来源连接：来源连接更换说明对方重新建立了连接并会重新同步，先清除该节点旧的会话；
+     * 来源连接断开时同样清除
+     */
+    private void track(String origin, Channel channel) {
+        Channel previous = sources.put(origin, channel);
+        if (previous == channel) {
+            return;
+        }
+        if (previous != null) {
+            forget(origin);
+        }
+        channel.closeFuture().addListener(future -> {
+            if (sources.remove(origin, channel)) {
+                forget(origin);
+            }
+        });
+    }
+
+    private void forget(String origin) {
+        owners.values().removeIf(origin::equals);
+        log.info("[ClusterNode] sessions of node {} removed", origin);
+    }
+
+    /**
+     * 连接建立后刷新该节点的地址并同步本节点的全部会话（在节点间连接的 EventLoop 中执行）
+     */
+    private void synchronize(PeerLink link) {
+        resolve(link.peerId());
+        for (String sessionId : sessionRegistry.sessionIds()) {
+            link.offer(ClusterFrame.BIND, sessionId, null);
+        }
+    }
+
+    @Override
+    public void bound(String sessionId, Channel channel) {
+        for (PeerLink link : links.values()) {
+            link.offer(ClusterFrame.BIND, sessionId, null);
+        }
+    }
+
+    @Override
+    public void unbound(String sessionId, Channel channel) {
+        for (PeerLink link : links.values()) {
+            link.offer(ClusterFrame.UNBIND, sessionId, null);
+        }
+    }
+
+    /**
+     * @param sessionId 会话ID
+     * @return 会话所在的节点ID，不在线返回 null
+     */
+    public String owner(String sessionId) {
+        return sessionRegistry.channel(sessionId) != null ? nodeId : owners.get(sessionId);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return 当前可用的节点间连接数
+     */
+    public int activeLinks() {
+        return (int) links.values().stream().filter(PeerLink::isActive).count();
+    }
+}
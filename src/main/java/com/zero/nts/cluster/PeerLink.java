@@ -0,0 +1,222 @@
+package com.zero.nts.cluster;
+
+import com.zero.nts.codec.EasyDecoder;
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.util.internal.PlatformDependent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 到另一个节点的单向连接
+ * <p>
+ * 条目先进入无锁队列，由连接所属的 EventLoop 批量取出，合并成若干 {@link MessageType#CLUSTER} 报文后一次 flush；
+ * 报文只管写出不等待回应，连接上可以同时有任意多个批次在途。连接断开期间的条目直接丢弃，
+ * 重连成功后由 {@link ClusterNode} 重新同步本节点的全部会话。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/22 11:05 </p>
+ */
+@Slf4j
+final class PeerLink {
+    private final String localId;
+    private final byte[] secret;
+    private final String peerId;
+    private final InetSocketAddress address;
+    private final Bootstrap bootstrap;
+    private final long reconnectDelayMillis;
+    private final int maxBatchBytes;
+    private final Consumer<PeerLink> onConnected;
+
+    private final Queue<ClusterFrame.Entry> pending = PlatformDependent.newMpscQueue();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Channel channel;
+    private volatile boolean closed;
+
+    PeerLink(String localId, byte[] secret, String peerId, EventLoopGroup group, Class<? extends SocketChannel> channelClass,
+             long reconnectDelayMillis, int maxBatchBytes, Consumer<PeerLink> onConnected) {
+        this.localId = localId;
+        this.secret = secret;
+        this.peerId = peerId;
+        this.address = parse(peerId);
+        this.reconnectDelayMillis = reconnectDelayMillis;
+        this.maxBatchBytes = maxBatchBytes;
+        this.onConnected = onConnected;
+        this.bootstrap = new Bootstrap()
+                .group(group)
+                .channel(channelClass)
+                .option(ChannelOption.TCP_NODELAY, true)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline()
+                                .addLast(new EasyDecoder())
+                                .addLast(new EasyEncoder())
+                                .addLast(new PeerHandler());
+                    }
+                });
+    }
+
+    private static InetSocketAddress parse(String peerId) {
+        int index = peerId.lastIndexOf(':');
+        if (index <= 0) {
+            throw new IllegalArgumentException("Invalid peer address: " + peerId);
+        }
+        return InetSocketAddress.createUnresolved(peerId.substring(0, index), Integer.parseInt(peerId.substring(index + 1)));
+    }
+
+    void connect() {
+        if (closed) {
+            return;
+        }
+        bootstrap.connect(address.getHostString(), address.getPort()).addListener((ChannelFuture future) -> {
+            if (!future.isSuccess()) {
+                log.debug("[PeerLink] connect to {} failed: {}", peerId, future.cause().toString());
+                scheduleReconnect();
+                return;
+            }
+            Channel ch = future.channel();
+            ch.closeFuture().addListener(f -> {
+                channel = null;
+                log.info("[PeerLink] link to {} closed", peerId);
+                scheduleReconnect();
+            });
+            channel = ch;
+            log.info("[PeerLink] link to {} established", peerId);
+            onConnected.accept(this);
+        });
+    }
+
+    private void scheduleReconnect() {
+        if (!closed) {
+            bootstrap.config().group().schedule(this::connect, reconnectDelayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 提交一个条目，连接不可用时释放报文并丢弃
+     * @return 是否已提交
+     */
+    boolean offer(byte op, String sessionId, ByteBuf frame) {
+        Channel ch = channel;
+        if (ch == null || !ch.isActive()) {
+            if (frame != null) {
+                frame.release();
+            }
+            dropped.increment();
+            return false;
+        }
+        pending.offer(new ClusterFrame.Entry(op, sessionId, frame));
+        if (flushScheduled.compareAndSet(false, true)) {
+            ch.eventLoop().execute(() -> flushPending(ch));
+        }
+        return true;
+    }
+
+    /**
+     * 在 EventLoop 中取出所有排队的条目，按 {@link #maxBatchBytes} 合并为报文后统一 flush
+     */
+    private void flushPending(Channel ch) {
+        flushScheduled.set(false);
+        ByteBuf body = null;
+        ClusterFrame.Entry entry;
+        while ((entry = pending.poll()) != null) {
+            if (!ch.isActive()) {
+                entry.release();
+                dropped.increment();
+                continue;
+            }
+            if (body == null) {
+                body = ch.alloc().ioBuffer(Math.min(maxBatchBytes, 4096));
+                ClusterFrame.writeString(body, localId);
+                ClusterFrame.writeBytes(body, secret);
+            }
+            ClusterFrame.writeEntry(body, entry);
+            forwarded.increment();
+            if (body.readableBytes() >= maxBatchBytes) {
+                write(ch, body);
+                body = null;
+            }
+        }
+        if (body != null) {
+            write(ch, body);
+        }
+        ch.flush();
+    }
+
+    private void write(Channel ch, ByteBuf body) {
+        ch.write(EasyMessage.newInstance(MessageVersion.V1, MessageType.CLUSTER, EasyMessage.PROBE_ID,
+                System.currentTimeMillis(), body), ch.voidPromise());
+    }
+
+    void close() {
+        closed = true;
+        Channel ch = channel;
+        if (ch != null) {
+            ch.close();
+        }
+        ClusterFrame.Entry entry;
+        while ((entry = pending.poll()) != null) {
+            entry.release();
+        }
+    }
+
+    String peerId() {
+        return peerId;
+    }
+
+    boolean isActive() {
+        Channel ch = channel;
+        return ch != null && ch.isActive();
+    }
+
+    long forwarded() {
+        return forwarded.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * 对端服务端发来的报文：回应心跳探测以免被判定为空闲，收到 GO_AWAY 时断开并稍后重连，其余忽略
+     */
+    private final class PeerHandler extends SimpleChannelInboundHandler<EasyMessage> {
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, EasyMessage msg) {
+            if (msg.getType() == MessageType.HEART_BEAT && msg.getId() == EasyMessage.PROBE_ID) {
+                ctx.writeAndFlush(EasyMessage.newInstance(MessageVersion.V1, MessageType.HEART_BEAT, EasyMessage.PROBE_ID,
+                        System.currentTimeMillis(), null), ctx.voidPromise());
+            } else if (msg.getType() == MessageType.GO_AWAY) {
+                log.info("[PeerLink] {} is going away", peerId);
+                ctx.close();
+            }
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            log.warn("[PeerLink] link to {} failed: {}", peerId, cause.toString());
+            ctx.close();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.zero.nts.codec;
+
+/**
+ * 解码器累积缓冲区的合并方式
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/21 10:26 </p>
+ */
+public enum CumulatorMode {
+    /// 拷贝合并到连续内存，解析报文头后按声明长度一次性扩容，大报文只拷贝一次
+    MERGE,
+    /// 以 CompositeByteBuf 组合各次读取的缓冲区，不拷贝，但跨组件读取时有额外的索引开销
+    COMPOSITE,
+    ;
+}
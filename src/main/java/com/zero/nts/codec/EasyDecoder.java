@@ -1,9 +1,10 @@
 package com.zero.nts.codec;
 
+import com.zero.nts.message.EasyContent;
 import com.zero.nts.message.EasyMessage;
-import com.zero.nts.message.MessageType;
 import com.zero.nts.message.MessageVersion;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import lombok.extern.slf4j.Slf4j;
@@ -12,52 +13,324 @@ import java.util.List;
 
 /**
  * 消息解码器
+ * <p>
+ * 非 {@link PayloadMode#HEAP_COPY} 模式下解码出的 {@link EasyMessage} 持有引用计数的数据体，
+ * 最终消费消息的处理器负责释放（{@link io.netty.channel.SimpleChannelInboundHandler} 会自动释放）。
+ * 消息实例均取自 {@link EasyMessage#newInstance()} 对象池，释放后归还复用，因此任何模式下都应释放。
+ * <p>
+ * V2 报文多 1 字节 flags，数据体被压缩时解压到池化直接内存后再按 {@link PayloadMode} 交付，
+ * 解码出的消息 length 为解压后的长度，flags 中的压缩位被清除。
+ * <p>
+ * 流式模式（{@link #streamThreshold} 大于 0）下，未压缩且数据体达到阈值的报文不再整体累积：
+ * 先交付一个 {@link EasyMessage#isChunked()} 的报文头，随后按数据到达的节奏交付 {@link EasyContent} 分片，
+ * 内存占用与单次读取的数据量相当，与报文大小无关。压缩报文需要完整输入才能解压，仍整体累积，
+ * 因此压缩报文的数据体与解压后的长度都受更小的 {@link #maxDecompressedSize} 限制（不应超过流式阈值），超过则关闭连接。
+ * <p>
+ * 解码器是一个状态机：报文头解析后缓存下来，数据体不完整时直接等待，后续读取不再重复解析报文头；
+ * 每次调用解码当前累积缓冲区中的全部完整报文。{@link CumulatorMode#MERGE} 模式下，
+ * 累积缓冲区按到达的数据量倍增扩容，且不超过报文声明的长度。
  *
  * @author Zero.
  * <p> Created on 2025/5/27 11:52 </p>
  */
 @Slf4j
 public class EasyDecoder extends ByteToMessageDecoder {
-    private final int MESSAGE_MAX_SIZE = 1024 * 1024 * 1024;
+    /**
+     * 默认最大报文长度（数据体字节数）
+     */
+    public static final int DEFAULT_MAX_FRAME_SIZE = 16 * 1024 * 1024;
+    /**
+     * 默认压缩报文解压后的最大长度，与默认流式阈值一致
+     */
+    public static final int DEFAULT_MAX_DECOMPRESSED_SIZE = 1024 * 1024;
+
+    /**
+     * 解码状态
+     */
+    private enum State {
+        /** 等待报文头 */
+        HEADER,
+        /** 报文头已解析，等待完整的数据体 */
+        BODY,
+        /** 流式报文，按到达的数据交付分片 */
+        CONTENT,
+        /** 报文非法，丢弃后续所有数据 */
+        DISCARD
+    }
+
+    private final PayloadMode payloadMode;
+    private final int maxFrameSize;
+    private final int streamThreshold;
+    private final int maxDecompressedSize;
+
+    private State state = State.HEADER;
+    /** 当前报文头，BODY / CONTENT 状态下有效 */
+    private char magic;
+    private MessageVersion version;
+    private byte type;
+    private long id;
+    private long timestamp;
+    private byte flags;
+    private PayloadCompression compression;
+    /** BODY 状态下为数据体长度，CONTENT 状态下为剩余未交付的数据体字节数 */
+    private int length;
+
+    public EasyDecoder() {
+        this(PayloadMode.HEAP_COPY);
+    }
+
+    public EasyDecoder(PayloadMode payloadMode) {
+        this(payloadMode, DEFAULT_MAX_FRAME_SIZE, 0);
+    }
+
+    public EasyDecoder(PayloadMode payloadMode, int maxFrameSize, int streamThreshold) {
+        this(payloadMode, maxFrameSize, streamThreshold, CumulatorMode.MERGE);
+    }
+
+    public EasyDecoder(PayloadMode payloadMode, int maxFrameSize, int streamThreshold, CumulatorMode cumulatorMode) {
+        this(payloadMode, maxFrameSize, streamThreshold, cumulatorMode, DEFAULT_MAX_DECOMPRESSED_SIZE);
+    }
+
+    /**
+     * @param payloadMode     数据体承载方式
+     * @param maxFrameSize    最大报文长度，超过则关闭连接
+     * @param streamThreshold 数据体达到该长度时以分片交付，小于等于 0 关闭流式模式
+     * @param cumulatorMode   累积缓冲区合并方式
+     * @param maxDecompressedSize 压缩报文解压后的最大长度，压缩数据体同样不得超过该长度
+     */
+    public EasyDecoder(PayloadMode payloadMode, int maxFrameSize, int streamThreshold, CumulatorMode cumulatorMode,
+                       int maxDecompressedSize) {
+        this.payloadMode = payloadMode;
+        this.maxFrameSize = maxFrameSize;
+        this.streamThreshold = streamThreshold;
+        this.maxDecompressedSize = maxDecompressedSize;
+        setCumulator(cumulatorMode == CumulatorMode.COMPOSITE ? COMPOSITE_CUMULATOR : this::cumulate);
+    }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-        if (in.readableBytes() < EasyMessage.MESSAGE_FIXED_SIZE) {
-            return;
+        // 一次解码累积缓冲区中的所有完整报文，直到数据不足；
+        // 不以 in.isReadable() 为循环条件，数据体为空的报文在报文头读完后缓冲区已无数据，仍需在本次交付
+        boolean progress = true;
+        while (progress) {
+            progress = switch (state) {
+                case HEADER -> readHeader(ctx, in, out);
+                case BODY -> readBody(ctx, in, out);
+                case CONTENT -> readContent(ctx, in, out);
+                case DISCARD -> {
+                    in.skipBytes(in.readableBytes());
+                    yield false;
+                }
+            };
         }
-        // 标记读取位置,方便后续回滚
-        in.markReaderIndex();
+    }
 
-        // 读取报文固定内容,
-        // TODO 校验合法性：魔术值、版本、类型、以及最大长度等
-        char magic = in.readChar();
-        byte version = in.readByte();
-        byte type = in.readByte();
-        long id = in.readLong();
-        long timestamp = in.readLong();
-        int length = in.readInt();
+    /**
+     * 解析并缓存报文头，报文头不完整时不消费任何数据
+     * @return 是否解析成功
+     */
+    private boolean readHeader(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        if (in.readableBytes() < EasyMessage.MESSAGE_FIXED_SIZE) {
+            return false;
+        }
+        // TODO 校验合法性：魔术值、类型等
+        byte versionValue = in.getByte(in.readerIndex() + 2);
+        MessageVersion messageVersion = MessageVersion.lookup(versionValue);
+        if (messageVersion == null) {
+            log.error("[EasyDecoder] Invalid message version {}", versionValue);
+            discard(ctx, in);
+            return false;
+        }
+        // V2 报文头多 1 字节 flags
+        if (in.readableBytes() < messageVersion.getHeaderSize()) {
+            return false;
+        }
+        magic = in.readChar();
+        in.skipBytes(1);
+        version = messageVersion;
+        type = in.readByte();
+        id = in.readLong();
+        timestamp = in.readLong();
+        length = in.readInt();
+        flags = messageVersion.hasFlags() ? in.readByte() : 0;
 
         // 校验数据包长度
-        if (length < 0 || length > MESSAGE_MAX_SIZE) {
-            log.error("[EasyDecoder] Invalid message length {}", length);
-            ctx.close();
-            return;
+        if (length < 0 || length > maxFrameSize) {
+            log.error("[EasyDecoder] Invalid message length {}, max frame size {}", length, maxFrameSize);
+            discard(ctx, in);
+            return false;
+        }
+        compression = PayloadCompression.lookup(flags);
+        if (compression == null) {
+            log.error("[EasyDecoder] Unknown compression flags {}", flags);
+            discard(ctx, in);
+            return false;
+        }
+        // 压缩报文整体累积后解压，不走流式交付；编码器只在压缩后变小时才发送压缩数据体，因此同样受解压上限约束
+        if (compression != PayloadCompression.NONE && length > maxDecompressedSize) {
+            log.error("[EasyDecoder] Compressed message length {}, max decompressed size {}", length, maxDecompressedSize);
+            discard(ctx, in);
+            return false;
         }
 
-        // 如果可读数据不足数据包长度，则需要重置并等待更多数据的到来（可能发生了网络活动或粘包）
-        if (in.readableBytes() < length) {
-            log.debug("[EasyDecoder] Data body incomplete, reset buf, channel: {}", ctx.channel().remoteAddress());
-            in.resetReaderIndex();
-            return;
+        if (streamThreshold > 0 && length >= streamThreshold && compression == PayloadCompression.NONE) {
+            // 流式报文：先交付报文头，数据体随后以分片交付
+            EasyMessage header = newMessage(length);
+            header.setFlags(flags);
+            header.setChunked(true);
+            out.add(header);
+            state = State.CONTENT;
+            return true;
         }
+        state = State.BODY;
+        return true;
+    }
 
-        // 读取数据体
-        byte[] payload = null;
-        if (length > 0) {
-            payload = new byte[length];
-            in.readBytes(payload);
+    /**
+     * 数据体完整时交付消息，否则等待更多数据（报文头已缓存，不回退读取位置）
+     * @return 是否交付了消息
+     */
+    private boolean readBody(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        if (in.readableBytes() < length) {
+            return false;
         }
-        EasyMessage message = new EasyMessage(magic, MessageVersion.fromVersion(version), MessageType.fromType(type), id, timestamp, length, payload);
+        EasyMessage message;
+        if (compression != PayloadCompression.NONE) {
+            try {
+                message = decompress(ctx, in);
+            } catch (RuntimeException e) {
+                // 压缩数据非法（长度前缀伪造、数据截断等），后续数据无法再对齐报文边界
+                discard(ctx, in);
+                throw e;
+            }
+        } else {
+            message = newMessage(length);
+            switch (payloadMode) {
+                // 直接引用累积缓冲区，不做拷贝
+                case RETAINED_SLICE -> message.setPayload(length > 0 ? in.readRetainedSlice(length) : null);
+                case POOLED_DIRECT -> {
+                    if (length > 0) {
+                        ByteBuf payload = ctx.alloc().directBuffer(length, length);
+                        in.readBytes(payload, length);
+                        message.setPayload(payload);
+                    }
+                }
+                default -> {
+                    if (length > 0) {
+                        byte[] data = new byte[length];
+                        in.readBytes(data);
+                        message.setData(data);
+                    }
+                }
+            }
+        }
+        message.setFlags((byte) (flags & ~PayloadCompression.FLAG_MASK));
+        state = State.HEADER;
         out.add(message);
+        return true;
+    }
+
+    /**
+     * 交付流式报文的数据体分片，有多少交付多少
+     * @return 是否交付了分片
+     */
+    private boolean readContent(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        int size = Math.min(in.readableBytes(), length);
+        if (size == 0) {
+            return false;
+        }
+        ByteBuf chunk;
+        if (payloadMode == PayloadMode.RETAINED_SLICE) {
+            chunk = in.readRetainedSlice(size);
+        } else {
+            // 分片始终以 ByteBuf 交付，HEAP_COPY 模式同样拷贝到池化内存
+            chunk = ctx.alloc().directBuffer(size, size);
+            in.readBytes(chunk, size);
+        }
+        length -= size;
+        out.add(new EasyContent(id, version, chunk, length == 0));
+        if (length == 0) {
+            state = State.HEADER;
+        }
+        return true;
+    }
+
+    /**
+     * 报文非法，后续数据无法再对齐报文边界：丢弃已累积和之后到达的全部数据并关闭连接
+     */
+    private void discard(ChannelHandlerContext ctx, ByteBuf in) {
+        state = State.DISCARD;
+        in.skipBytes(in.readableBytes());
+        ctx.close();
+    }
+
+    /**
+     * 从对象池获取消息并填充缓存的报文头字段
+     */
+    private EasyMessage newMessage(int bodyLength) {
+        EasyMessage message = EasyMessage.newInstance();
+        message.setMagic(magic);
+        message.setVersion(version);
+        // 类型码查表得到内置类型，自定义类型码保留原值交给业务处理器
+        message.setTypeCode(type);
+        message.setId(id);
+        message.setTimestamp(timestamp);
+        message.setLength(bodyLength);
+        return message;
+    }
+
+    /**
+     * 解压数据体，HEAP_COPY 模式下拷贝为 byte[] 并立即归还直接内存
+     */
+    private EasyMessage decompress(ChannelHandlerContext ctx, ByteBuf in) {
+        ByteBuf plain = compression.decompress(ctx.alloc(), in.readSlice(length), maxDecompressedSize);
+        int plainLength = plain.readableBytes();
+        EasyMessage message = newMessage(plainLength);
+        if (payloadMode != PayloadMode.HEAP_COPY) {
+            message.setPayload(plain);
+            return message;
+        }
+        try {
+            byte[] data = new byte[plainLength];
+            plain.readBytes(data);
+            message.setData(data);
+            return message;
+        } finally {
+            plain.release();
+        }
+    }
+
+    /**
+     * 合并累积缓冲区，语义同 {@link #MERGE_CUMULATOR}，区别在于扩容：
+     * 数据体不完整时扩容不超过报文声明的长度，最后一次扩容恰好容纳数据体，不浪费多余的容量；
+     * 扩容幅度受已到达的数据量约束，对端无法只凭伪造的长度字段让服务端预先分配大块内存
+     */
+    private ByteBuf cumulate(ByteBufAllocator alloc, ByteBuf cumulation, ByteBuf in) {
+        if (!cumulation.isReadable() && in.isContiguous()) {
+            cumulation.release();
+            return in;
+        }
+        try {
+            int readable = in.readableBytes();
+            if (readable <= cumulation.writableBytes() && cumulation.refCnt() == 1 && !cumulation.isReadOnly()) {
+                cumulation.writeBytes(in, in.readerIndex(), readable);
+                in.readerIndex(in.writerIndex());
+                return cumulation;
+            }
+            int required = cumulation.readableBytes() + readable;
+            int capacity = alloc.calculateNewCapacity(required, Integer.MAX_VALUE);
+            if (state == State.BODY) {
+                // 长度来自对端报文头，不可信：仍按已到达的数据量逐步扩容，只在接近声明长度时收敛到恰好容纳数据体
+                capacity = Math.max(required, Math.min(capacity, length));
+            }
+            ByteBuf merged = alloc.buffer(capacity);
+            merged.writeBytes(cumulation, cumulation.readerIndex(), cumulation.readableBytes())
+                    .writeBytes(in, in.readerIndex(), readable);
+            in.readerIndex(in.writerIndex());
+            cumulation.release();
+            return merged;
+        } finally {
+            in.release();
+        }
     }
 }
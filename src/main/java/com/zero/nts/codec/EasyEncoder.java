@@ -1,22 +1,138 @@
 package com.zero.nts.codec;
 
+import com.zero.nts.message.EasyContent;
 import com.zero.nts.message.EasyMessage;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
 
 /**
  * 编码器
+ * <p>
+ * 报文头直接写入从 {@link io.netty.buffer.ByteBufAllocator} 分配的池化缓冲区：
+ *  - 数据体小于 {@link #compositeThreshold} 时，分配一块大小恰好为 报文头 + 数据体 的缓冲区，一次拷贝；
+ *  - 数据体达到阈值时，仅为报文头分配缓冲区，与数据体组合为 {@link CompositeByteBuf} 发送，不拷贝数据体。
+ * <p>
+ * V2 报文的数据体达到 {@link #compressionThreshold} 时按 {@link #compression} 压缩，
+ * 压缩后不小于原数据体则按原样发送（flags 中压缩位为 0）。超过 {@link #maxCompressionSize} 的数据体不压缩，
+ * 避免超出对端解码器的解压上限。
+ * <p>
+ * 流式报文（{@link EasyMessage#isChunked()}）只写出报文头，数据体由随后写出的 {@link EasyContent} 分片原样发送，
+ * 处理器据此可以不经完整拼装直接转发大报文。
  *
  * @author Zero.
  * <p> Created on 2025/5/27 11:51 </p>
  */
-public class EasyEncoder extends MessageToByteEncoder<EasyMessage> {
+public class EasyEncoder extends MessageToMessageEncoder<Object> {
+    /**
+     * 默认零拷贝阈值
+     */
+    public static final int DEFAULT_COMPOSITE_THRESHOLD = 8 * 1024;
+    /**
+     * 默认压缩阈值，过小的数据体压缩收益抵不上 CPU 开销
+     */
+    public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    private final int compositeThreshold;
+    private final PayloadCompression compression;
+    private final int compressionThreshold;
+    private final int maxCompressionSize;
+
+    public EasyEncoder() {
+        this(DEFAULT_COMPOSITE_THRESHOLD);
+    }
+
+    public EasyEncoder(int compositeThreshold) {
+        this(compositeThreshold, PayloadCompression.LZ4, DEFAULT_COMPRESSION_THRESHOLD);
+    }
+
+    public EasyEncoder(int compositeThreshold, PayloadCompression compression, int compressionThreshold) {
+        this(compositeThreshold, compression, compressionThreshold, EasyDecoder.DEFAULT_MAX_DECOMPRESSED_SIZE);
+    }
+
+    /**
+     * @param compositeThreshold   数据体达到该大小时零拷贝发送
+     * @param compression          V2 报文数据体压缩算法
+     * @param compressionThreshold 数据体达到该大小时压缩
+     * @param maxCompressionSize   数据体超过该大小时不压缩，应与对端解码器的解压上限一致
+     */
+    public EasyEncoder(int compositeThreshold, PayloadCompression compression, int compressionThreshold, int maxCompressionSize) {
+        this.compositeThreshold = compositeThreshold;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+        this.maxCompressionSize = maxCompressionSize;
+    }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, EasyMessage msg, ByteBuf out) throws Exception {
-        ByteBuf buf = msg.toByteBuf();
-        out.writeBytes(buf);
-        buf.release();
+    public boolean acceptOutboundMessage(Object msg) {
+        return msg instanceof EasyMessage || msg instanceof EasyContent;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, List<Object> out) throws Exception {
+        if (msg instanceof EasyContent content) {
+            // 分片随消息释放，这里额外持有一次引用交给下游
+            out.add(content.content().retain());
+        } else {
+            out.add(encode(ctx.alloc(), (EasyMessage) msg));
+        }
+    }
+
+    /**
+     * 将消息编码为一个完整的报文，不经过 pipeline（例如广播时只编码一次）
+     * @param alloc 分配器
+     * @param msg   消息，调用方负责释放
+     * @return 报文，由调用方释放
+     */
+    public ByteBuf encode(ByteBufAllocator alloc, EasyMessage msg) {
+        if (msg.isChunked()) {
+            int headerSize = msg.getVersion().getHeaderSize();
+            ByteBuf header = alloc.ioBuffer(headerSize, headerSize);
+            msg.writeHeader(header, msg.getLength(), (byte) (msg.getFlags() & ~PayloadCompression.FLAG_MASK));
+            return header;
+        }
+        ByteBuf payload = msg.getPayload();
+        byte[] data = payload == null ? msg.getData() : null;
+        int bodySize = payload != null ? payload.readableBytes() : (data == null ? 0 : data.length);
+        int headerSize = msg.getVersion().getHeaderSize();
+        byte flags = (byte) (msg.getFlags() & ~PayloadCompression.FLAG_MASK);
+
+        if (msg.getVersion().hasFlags() && compression != PayloadCompression.NONE && bodySize >= compressionThreshold
+                && bodySize <= maxCompressionSize) {
+            ByteBuf compressed = compression.compress(alloc, payload != null ? payload : Unpooled.wrappedBuffer(data));
+            if (compressed.readableBytes() < bodySize) {
+                ByteBuf header = alloc.ioBuffer(headerSize, headerSize);
+                msg.writeHeader(header, compressed.readableBytes(), (byte) (flags | compression.getFlag()));
+                CompositeByteBuf frame = alloc.compositeBuffer(2);
+                frame.addComponents(true, header, compressed);
+                return frame;
+            }
+            compressed.release();
+        }
+
+        if (bodySize >= compositeThreshold) {
+            ByteBuf header = alloc.ioBuffer(headerSize, headerSize);
+            msg.writeHeader(header, bodySize, flags);
+            // 数据体的所有权随消息释放而归还，这里额外持有一次引用交给 CompositeByteBuf
+            ByteBuf body = payload != null ? payload.retainedSlice() : Unpooled.wrappedBuffer(data);
+            CompositeByteBuf frame = alloc.compositeBuffer(2);
+            frame.addComponents(true, header, body);
+            return frame;
+        }
+
+        int frameSize = headerSize + bodySize;
+        ByteBuf frame = alloc.ioBuffer(frameSize, frameSize);
+        msg.writeHeader(frame, bodySize, flags);
+        if (payload != null) {
+            frame.writeBytes(payload, payload.readerIndex(), bodySize);
+        } else if (data != null) {
+            frame.writeBytes(data);
+        }
+        return frame;
     }
 }
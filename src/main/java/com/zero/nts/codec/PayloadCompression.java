@@ -0,0 +1,249 @@
+package com.zero.nts.codec;
+
+import com.github.luben.zstd.Zstd;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.compression.Snappy;
+import io.netty.util.concurrent.FastThreadLocal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 数据体压缩算法（仅 {@link com.zero.nts.message.MessageVersion#V2} 报文支持）
+ * <p>
+ * 压缩后的数据体格式：4 字节原始长度 + 压缩数据。压缩与解压都直接读写池化的 {@link ByteBuf}，
+ * 不经过中间 byte[]。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/19 10:15 </p>
+ */
+@Getter
+@AllArgsConstructor
+public enum PayloadCompression {
+    /// 不压缩
+    NONE((byte) 0) {
+        @Override
+        int maxCompressedLength(int length) {
+            return length;
+        }
+
+        @Override
+        void compress(ByteBuf src, int length, ByteBuf dst) {
+            dst.writeBytes(src, src.readerIndex(), length);
+        }
+
+        @Override
+        void decompress(ByteBuf src, int length, ByteBuf dst, int originalLength) {
+            dst.writeBytes(src, src.readerIndex(), length);
+        }
+    },
+    /// LZ4，压缩/解压速度最快
+    LZ4((byte) 1) {
+        @Override
+        int maxCompressedLength(int length) {
+            return LZ4_COMPRESSOR.maxCompressedLength(length);
+        }
+
+        @Override
+        void compress(ByteBuf src, int length, ByteBuf dst) {
+            ByteBuffer in = src.nioBuffer(src.readerIndex(), length);
+            ByteBuffer out = dst.nioBuffer(dst.writerIndex(), dst.writableBytes());
+            int written = LZ4_COMPRESSOR.compress(in, in.position(), length, out, out.position(), out.remaining());
+            dst.writerIndex(dst.writerIndex() + written);
+        }
+
+        @Override
+        void decompress(ByteBuf src, int length, ByteBuf dst, int originalLength) {
+            ByteBuffer in = src.nioBuffer(src.readerIndex(), length);
+            ByteBuffer out = dst.nioBuffer(dst.writerIndex(), originalLength);
+            // 数据体来自网络，使用会校验输入边界的 safe 解压器，并核对解压后的长度与前缀一致
+            int written = LZ4_DECOMPRESSOR.decompress(in, in.position(), length, out, out.position(), originalLength);
+            if (written != originalLength) {
+                throw new IllegalArgumentException("LZ4 decompressed " + written + " bytes, expected " + originalLength);
+            }
+            dst.writerIndex(dst.writerIndex() + originalLength);
+        }
+    },
+    /// Snappy（Netty 内置实现，无本地依赖）
+    SNAPPY((byte) 2) {
+        @Override
+        int maxCompressedLength(int length) {
+            // Snappy 最坏情况：32 + n + n / 6
+            return 32 + length + length / 6;
+        }
+
+        @Override
+        void compress(ByteBuf src, int length, ByteBuf dst) {
+            Snappy snappy = SNAPPY_CODEC.get();
+            snappy.reset();
+            snappy.encode(src.slice(src.readerIndex(), length), dst, length);
+        }
+
+        @Override
+        void decompress(ByteBuf src, int length, ByteBuf dst, int originalLength) {
+            Snappy snappy = SNAPPY_CODEC.get();
+            snappy.reset();
+            snappy.decode(src.slice(src.readerIndex(), length), dst);
+        }
+    },
+    /// zstd，压缩率最高，需要本地库（zstd-jni），输入输出均需为直接内存
+    ZSTD((byte) 3) {
+        @Override
+        int maxCompressedLength(int length) {
+            return (int) Zstd.compressBound(length);
+        }
+
+        @Override
+        boolean requiresDirect() {
+            return true;
+        }
+
+        @Override
+        void compress(ByteBuf src, int length, ByteBuf dst) {
+            ByteBuffer in = src.nioBuffer(src.readerIndex(), length);
+            ByteBuffer out = dst.nioBuffer(dst.writerIndex(), dst.writableBytes());
+            long written = Zstd.compressDirectByteBuffer(out, out.position(), out.remaining(), in, in.position(), length, Zstd.defaultCompressionLevel());
+            if (Zstd.isError(written)) {
+                throw new IllegalStateException("Zstd compress failed: " + Zstd.getErrorName(written));
+            }
+            dst.writerIndex(dst.writerIndex() + (int) written);
+        }
+
+        @Override
+        void decompress(ByteBuf src, int length, ByteBuf dst, int originalLength) {
+            ByteBuffer in = src.nioBuffer(src.readerIndex(), length);
+            ByteBuffer out = dst.nioBuffer(dst.writerIndex(), originalLength);
+            long written = Zstd.decompressDirectByteBuffer(out, out.position(), originalLength, in, in.position(), length);
+            if (Zstd.isError(written) || written != originalLength) {
+                throw new IllegalArgumentException("Zstd decompress failed: " + Zstd.getErrorName(written));
+            }
+            dst.writerIndex(dst.writerIndex() + originalLength);
+        }
+    },
+    ;
+
+    /** 报文 flags 中压缩算法所占的位 */
+    public static final byte FLAG_MASK = 0x07;
+    /** 压缩数据体前缀的原始长度字段大小 */
+    public static final int LENGTH_PREFIX = 4;
+
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor LZ4_DECOMPRESSOR = LZ4Factory.fastestInstance().safeDecompressor();
+    private static final FastThreadLocal<Snappy> SNAPPY_CODEC = new FastThreadLocal<>() {
+        @Override
+        protected Snappy initialValue() {
+            return new Snappy();
+        }
+    };
+
+    /** 写入报文 flags 的取值 */
+    private final byte flag;
+
+    abstract int maxCompressedLength(int length);
+
+    abstract void compress(ByteBuf src, int length, ByteBuf dst);
+
+    abstract void decompress(ByteBuf src, int length, ByteBuf dst, int originalLength);
+
+    boolean requiresDirect() {
+        return false;
+    }
+
+    /**
+     * 压缩数据体
+     * @param alloc 分配器
+     * @param src   原始数据体（不改变读索引）
+     * @return 带原始长度前缀的压缩数据，由调用方释放
+     */
+    public ByteBuf compress(ByteBufAllocator alloc, ByteBuf src) {
+        int length = src.readableBytes();
+        ByteBuf input = direct(alloc, src);
+        ByteBuf dst = alloc.directBuffer(LENGTH_PREFIX + maxCompressedLength(length));
+        try {
+            dst.writeInt(length);
+            compress(input, length, dst);
+            return dst;
+        } catch (Throwable e) {
+            dst.release();
+            throw e;
+        } finally {
+            if (input != src) {
+                input.release();
+            }
+        }
+    }
+
+    /**
+     * 解压数据体到池化的直接内存
+     * @param alloc 分配器
+     * @param src   带原始长度前缀的压缩数据（读取全部可读字节）
+     * @param maxLength 允许的最大原始长度，在分配输出缓冲区之前校验，防止恶意的长度前缀
+     * @return 原始数据，由调用方释放
+     */
+    public ByteBuf decompress(ByteBufAllocator alloc, ByteBuf src, int maxLength) {
+        int originalLength = src.readInt();
+        if (originalLength < 0 || originalLength > maxLength) {
+            throw new IllegalArgumentException("Invalid decompressed length: " + originalLength);
+        }
+        int length = src.readableBytes();
+        ByteBuf input = direct(alloc, src);
+        ByteBuf dst = alloc.directBuffer(originalLength, originalLength);
+        try {
+            decompress(input, length, dst, originalLength);
+            src.skipBytes(length);
+            return dst;
+        } catch (Throwable e) {
+            dst.release();
+            throw e;
+        } finally {
+            if (input != src) {
+                input.release();
+            }
+        }
+    }
+
+    private ByteBuf direct(ByteBufAllocator alloc, ByteBuf src) {
+        if (!requiresDirect() || (src.isDirect() && src.nioBufferCount() == 1)) {
+            return src;
+        }
+        ByteBuf copy = alloc.directBuffer(src.readableBytes());
+        copy.writeBytes(src, src.readerIndex(), src.readableBytes());
+        return copy;
+    }
+
+    /**
+     * 根据报文 flags 解析压缩算法
+     * @param flags 报文 flags
+     * @return 压缩算法
+     */
+    public static PayloadCompression fromFlags(byte flags) {
+        PayloadCompression item = LOOKUP[flags & FLAG_MASK];
+        if (item == null) {
+            throw new IllegalArgumentException("Unknown compression flag: " + flags);
+        }
+        return item;
+    }
+
+    /**
+     * 查找压缩算法
+     * @param flags 报文 flags
+     * @return 压缩算法，未定义的压缩位返回 null
+     */
+    public static PayloadCompression lookup(byte flags) {
+        return LOOKUP[flags & FLAG_MASK];
+    }
+
+    /** 按压缩位索引的查找表，解码每个 V2 报文都会查询 */
+    private static final PayloadCompression[] LOOKUP = new PayloadCompression[FLAG_MASK + 1];
+
+    static {
+        for (PayloadCompression item : values()) {
+            LOOKUP[item.flag] = item;
+        }
+    }
+}
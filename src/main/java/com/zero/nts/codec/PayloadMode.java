@@ -0,0 +1,17 @@
+package com.zero.nts.codec;
+
+/**
+ * 解码时数据体的承载方式
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/3 10:12 </p>
+ */
+public enum PayloadMode {
+    /// 拷贝到新的 byte[]（兼容模式），每帧一次堆分配 + 一次内存拷贝
+    HEAP_COPY,
+    /// 累积缓冲区的 retainedSlice，零拷贝，但会延长累积缓冲区的生命周期直到消息被释放
+    RETAINED_SLICE,
+    /// 拷贝到池化的直接内存，不持有累积缓冲区，适合需要长时间持有消息的处理器
+    POOLED_DIRECT,
+    ;
+}
@@ -1,5 +1,14 @@
 package com.zero.nts.config;
 
+import com.zero.nts.codec.CumulatorMode;
+import com.zero.nts.codec.EasyDecoder;
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.codec.PayloadCompression;
+import com.zero.nts.codec.PayloadMode;
+import com.zero.nts.server.dispatch.DispatchMode;
+import com.zero.nts.server.flow.SlowConsumerPolicy;
+import com.zero.nts.server.handler.FlushMode;
+import com.zero.nts.transport.TransportType;
 import io.netty.handler.logging.LogLevel;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -7,6 +16,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Zero.
@@ -28,9 +39,13 @@ public class NettyProperties {
      */
     private int backlog = 1024;
     /**
-     * 日志级别
+     * 日志级别，用于监听 Channel 的 LoggingHandler 与报文日志（nts.wire 日志器）
      */
     private LogLevel level = LogLevel.DEBUG;
+    /**
+     * 报文日志配置
+     */
+    private WireLog wireLog = new WireLog();
     /**
      * 客户端连接超时时间
      */
@@ -43,8 +58,320 @@ public class NettyProperties {
      * TCP Nagle 是否开启
      */
     private Boolean noDelay = false;
+    /**
+     * 传输实现：auto | nio | epoll | io_uring，不可用时回退到 nio
+     */
+    private TransportType transport = TransportType.AUTO;
+    /**
+     * 监听 Channel 数量，大于 1 时需要 SO_REUSEPORT（epoll / io_uring），由内核把连接分散到多个 boss 线程
+     */
+    private int acceptors = 1;
+    /**
+     * 是否开启 SO_REUSEPORT，允许新进程在旧进程仍在运行时绑定同一端口
+     */
+    private boolean reusePort = false;
+    /**
+     * TCP_FASTOPEN 队列长度，0 表示关闭（仅原生传输）
+     */
+    private int tcpFastOpen = 0;
+    /**
+     * 优雅下线时等待在途请求完成的最长时间
+     */
+    private Duration drainTimeout = Duration.ofSeconds(30);
+    /**
+     * 编解码配置
+     */
+    private Codec codec = new Codec();
+    /**
+     * 写缓冲区与慢消费者配置
+     */
+    private Write write = new Write();
+    /**
+     * 限流配置，可通过 /actuator/ratelimit 在运行时调整
+     */
+    private RateLimit rateLimit = new RateLimit();
+    /**
+     * 连接准入配置
+     */
+    private Admission admission = new Admission();
+    /**
+     * 响应刷新配置
+     */
+    private Flush flush = new Flush();
+    /**
+     * 业务处理分发配置
+     */
+    private Dispatch dispatch = new Dispatch();
+    /**
+     * 连接存活检测配置
+     */
+    private Idle idle = new Idle();
+    /**
+     * 集群配置
+     */
+    private Cluster cluster = new Cluster();
+    /**
+     * 事件循环配置
+     */
+    private EventLoop eventLoop = new EventLoop();
 
     public SocketAddress getAddress() {
         return new InetSocketAddress(host, port);
     }
+
+    @Data
+    public static class Codec {
+        /**
+         * 解码后数据体的承载方式，默认拷贝为 byte[]
+         */
+        private PayloadMode payloadMode = PayloadMode.HEAP_COPY;
+        /**
+         * 解码器累积缓冲区的合并方式，默认拷贝合并（按报文长度一次扩容）
+         */
+        private CumulatorMode cumulator = CumulatorMode.MERGE;
+        /**
+         * 编码时数据体达到该大小（字节）后以 CompositeByteBuf 零拷贝发送
+         */
+        private int compositeThreshold = EasyEncoder.DEFAULT_COMPOSITE_THRESHOLD;
+        /**
+         * V2 报文数据体压缩算法（V1 报文不压缩）
+         */
+        private PayloadCompression compression = PayloadCompression.LZ4;
+        /**
+         * 数据体达到该大小（字节）后才压缩
+         */
+        private int compressionThreshold = EasyEncoder.DEFAULT_COMPRESSION_THRESHOLD;
+        /**
+         * 最大报文长度（数据体字节数），超过则关闭连接
+         */
+        private int maxFrameSize = EasyDecoder.DEFAULT_MAX_FRAME_SIZE;
+        /**
+         * 数据体达到该大小（字节）后以分片流式交付，不在内存中整体累积，小于等于 0 关闭
+         */
+        private int streamThreshold = 1024 * 1024;
+        /**
+         * 压缩报文解压后的最大长度（字节），压缩报文整体累积解压，不应超过 streamThreshold；
+         * 编码时超过该大小的数据体不压缩
+         */
+        private int maxDecompressedSize = EasyDecoder.DEFAULT_MAX_DECOMPRESSED_SIZE;
+    }
+
+    @Data
+    public static class Flush {
+        /**
+         * 刷新模式，BATCH 模式下同一次读取产生的响应合并为一次 flush
+         */
+        private FlushMode mode = FlushMode.BATCH;
+        /**
+         * BATCH 模式下累计多少条响应后强制 flush
+         */
+        private int maxPendingMessages = 64;
+        /**
+         * BATCH 模式下累计多少字节后强制 flush
+         */
+        private long maxPendingBytes = 64 * 1024;
+        /**
+         * 大于 0 时在 pipeline 中添加 FlushConsolidationHandler，合并业务线程等处发起的 flush，
+         * 读取过程中每累计该次数的 flush 才真正执行一次
+         */
+        private int explicitFlushAfterFlushes = 0;
+    }
+
+    @Data
+    public static class Dispatch {
+        /**
+         * 业务处理器执行方式：inline | executor | virtual
+         */
+        private DispatchMode mode = DispatchMode.INLINE;
+        /**
+         * executor 模式的执行器数量，0 表示默认值 2 * CPU 核数（virtual 模式每个连接一个执行器，不使用该值）
+         */
+        private int threads = 0;
+        /**
+         * executor 模式单个执行器的任务队列上限，队列满时拒绝的消息被释放并关闭连接
+         * （virtual 模式每个连接的队列由 high-water-mark 约束）
+         */
+        private int maxPendingTasks = 65536;
+        /**
+         * 单个连接排队未处理的消息数达到该值时暂停读取
+         */
+        private int highWaterMark = 1024;
+        /**
+         * 暂停读取后，排队消息数回落到该值时恢复读取
+         */
+        private int lowWaterMark = 256;
+    }
+
+    @Data
+    public static class Idle {
+        /**
+         * 超过该时间未读取到任何数据则关闭连接
+         */
+        private Duration readTimeout = Duration.ofSeconds(10);
+        /**
+         * 超过该时间未读取到数据时，服务端主动发送心跳探测，0 表示不探测
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(5);
+        /**
+         * 每个连接的检查周期
+         */
+        private Duration checkInterval = Duration.ofSeconds(1);
+        /**
+         * 连接分桶数量，每个时间轮 tick 检查一个桶
+         */
+        private int buckets = 16;
+    }
+
+    @Data
+    public static class Write {
+        /**
+         * 写缓冲区高水位（字节），超过后连接变为不可写
+         */
+        private int highWaterMark = 64 * 1024;
+        /**
+         * 写缓冲区低水位（字节），回落到该值后连接恢复可写
+         */
+        private int lowWaterMark = 32 * 1024;
+        /**
+         * 连接不可写时的处理策略：pause-read | drop | disconnect
+         */
+        private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.PAUSE_READ;
+        /**
+         * DISCONNECT 策略下持续不可写超过该时间后断开连接
+         */
+        private Duration disconnectTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class WireLog {
+        /**
+         * 每秒最多记录的报文数，0 表示不限
+         */
+        private int samplesPerSecond = 100;
+        /**
+         * 异步日志环形队列容量，队列满时丢弃记录
+         */
+        private int bufferSize = 8192;
+        /**
+         * 每条记录最多解码的数据体字节数，0 表示不记录数据体
+         */
+        private int maxPayloadBytes = 256;
+    }
+
+    @Data
+    public static class RateLimit {
+        /**
+         * 单个连接的速率
+         */
+        private Limit channel = new Limit();
+        /**
+         * 单个客户端 IP（所有连接合计）的速率
+         */
+        private Limit ip = new Limit();
+        /**
+         * 全局速率
+         */
+        private Limit global = new Limit();
+        /**
+         * 允许的突发时长，突发量 = 速率 * 该时长
+         */
+        private Duration burst = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Limit {
+        /**
+         * 每秒消息数，0 表示不限
+         */
+        private long messagesPerSecond = 0;
+        /**
+         * 每秒字节数，0 表示不限
+         */
+        private long bytesPerSecond = 0;
+    }
+
+    @Data
+    public static class Admission {
+        /**
+         * 最大连接数，0 表示不限
+         */
+        private int maxConnections = 0;
+        /**
+         * 单个客户端 IP 的最大连接数，0 表示不限
+         */
+        private int maxConnectionsPerIp = 0;
+        /**
+         * 每秒接受的新连接数，0 表示不限
+         */
+        private long acceptsPerSecond = 0;
+        /**
+         * 允许突发接受的连接数
+         */
+        private int acceptBurst = 100;
+    }
+
+    @Data
+    public static class Cluster {
+        /**
+         * 是否开启集群模式
+         */
+        private boolean enabled = false;
+        /**
+         * 本节点ID，即其他节点连接本节点使用的地址（host:port），默认为服务地址
+         */
+        private String nodeId;
+        /**
+         * 其他节点的地址（host:port），与对方的 node-id 一致
+         */
+        private List<String> peers = new ArrayList<>();
+        /**
+         * 集群共享密钥，节点间报文携带该密钥，不一致的报文被拒绝；开启集群模式时必须配置
+         */
+        private String secret;
+        /**
+         * 节点间连接断开后的重连间隔
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(1);
+        /**
+         * 单个批量报文的数据体上限（字节），超过后拆分为多个报文
+         */
+        private int maxBatchBytes = 64 * 1024;
+    }
+
+    @Data
+    public static class EventLoop {
+        /**
+         * boss 线程名前缀，线程数由 acceptors 决定
+         */
+        private String bossThreadPrefix = "nts-boss";
+        /**
+         * boss 线程绑定的 CPU 列表（格式同 taskset -c，例如 0-1），为空不绑核
+         */
+        private String bossCpus = "";
+        /**
+         * worker 线程数，0 表示使用 Netty 默认值（2 * CPU 核数）
+         */
+        private int workerThreads = 0;
+        /**
+         * worker 线程名前缀
+         */
+        private String workerThreadPrefix = "nts-worker";
+        /**
+         * worker 线程绑定的 CPU 列表（格式同 taskset -c，例如 2-7,10），按线程创建顺序轮流分配，为空不绑核
+         */
+        private String workerCpus = "";
+        /**
+         * worker 每轮循环中 I/O 处理时间占比（1-100），0 表示使用 Netty 默认值 50，仅 nio / epoll 支持
+         */
+        private int ioRatio = 0;
+        /**
+         * worker 忙轮询，不在 epoll_wait 上休眠，以独占 CPU 换取更低的唤醒延迟；
+         * 应配合 worker-threads 与 worker-cpus 使用，仅 epoll 支持
+         */
+        private boolean busyPoll = false;
+        /**
+         * 事件循环延迟的采样间隔，0 表示关闭采样
+         */
+        private Duration probeInterval = Duration.ofMillis(100);
+    }
 }
@@ -0,0 +1,68 @@
+package com.zero.nts.message;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+import lombok.Getter;
+
+/**
+ * 流式传输的数据体分片
+ * <p>
+ * 数据体超过流式阈值的报文先以 {@link EasyMessage#isChunked()} 为 true 的报文头事件交付，
+ * 随后数据体按到达顺序拆分为若干 {@link EasyContent}，最后一个分片的 {@link #isLast()} 为 true，
+ * 处理器可以边接收边落盘或转发，无需在内存中拼出完整数据体。
+ * <p>
+ * 分片持有引用计数的 {@link ByteBuf}，由最终消费的处理器释放。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/19 15:20 </p>
+ */
+@Getter
+public class EasyContent extends DefaultByteBufHolder {
+    /** 所属报文的消息ID */
+    private final long id;
+    /** 所属报文的协议版本 */
+    private final MessageVersion version;
+    /** 是否为最后一个分片 */
+    private final boolean last;
+
+    public EasyContent(long id, MessageVersion version, ByteBuf content, boolean last) {
+        super(content);
+        this.id = id;
+        this.version = version;
+        this.last = last;
+    }
+
+    @Override
+    public EasyContent replace(ByteBuf content) {
+        return new EasyContent(id, version, content, last);
+    }
+
+    @Override
+    public EasyContent retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public EasyContent retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public EasyContent touch() {
+        super.touch();
+        return this;
+    }
+
+    @Override
+    public EasyContent touch(Object hint) {
+        super.touch(hint);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "EasyContent(id=" + id + ", size=" + content().readableBytes() + ", last=" + last + ")";
+    }
+}
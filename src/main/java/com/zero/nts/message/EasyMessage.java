@@ -1,41 +1,117 @@
 package com.zero.nts.message;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
-import lombok.AllArgsConstructor;
+import io.netty.util.AbstractReferenceCounted;
+import io.netty.util.Recycler;
+import io.netty.util.ReferenceCounted;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /**
+ * 消息体
+ * <p>
+ * 数据体有两种承载方式：
+ *  - {@link #data}：堆内 byte[]，兼容旧的处理器；
+ *  - {@link #payload}：引用计数的 {@link ByteBuf}（零拷贝解码时为累积缓冲区的 retainedSlice 或池化直接内存），
+ *    消息本身实现了 {@link ReferenceCounted}，引用计数归零时释放 payload，
+ *    由 {@link io.netty.channel.SimpleChannelInboundHandler} 或编码器在使用完毕后自动释放。
+ * <p>
+ * 通过 {@link #newInstance()} 获取的消息来自 {@link Recycler} 对象池，引用计数归零时清空字段并归还对象池，
+ * 解码器与内置处理器均使用池化实例，释放后不得再访问消息（需要跨越释放持有时先 {@link #retain()}）。
+ *
  * @author Zero.
  * <p> Created on 2025/5/26 15:29 </p>
  */
 @Data
-@AllArgsConstructor
-public class EasyMessage {
+@EqualsAndHashCode(callSuper = false)
+public class EasyMessage extends AbstractReferenceCounted {
+    private static final Recycler<EasyMessage> RECYCLER = new Recycler<>() {
+        @Override
+        protected EasyMessage newObject(Handle<EasyMessage> handle) {
+            return new EasyMessage(handle);
+        }
+    };
+
     /** 协议标识 */
     private char magic = '@';
-    /** 协议版本: V1 */
+    /** 协议版本: V1、V2 */
     private MessageVersion version;
-    /** 消息类型 */
+    /** 消息类型，自定义类型码时为 null */
     private MessageType type;
+    /** 消息类型码，支持 {@link MessageType} 之外的自定义类型 */
+    private byte typeCode;
     /** 消息ID */
     private long id;
     /** 时间戳 */
     private long timestamp;
     /** 数据体长度 */
     private int length;
+    /** 标志位（仅 V2 报文写出），低 3 位为数据体压缩算法 */
+    private byte flags;
     /** 数据体 */
     private byte[] data;
+    /** 数据体（引用计数），与 data 二选一 */
+    @ToString.Exclude
+    private ByteBuf payload;
+    /**
+     * 是否为流式报文头：数据体不随消息携带，而是以 length 字节的 {@link EasyContent} 分片随后交付（不在线上传输）
+     */
+    private boolean chunked;
+    /**
+     * 低优先级消息，连接不可写时可被丢弃（不在线上传输）
+     */
+    private boolean droppable;
+    /** 对象池句柄，直接 new 出的实例为 null，不归还对象池 */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Recycler.Handle<EasyMessage> handle;
 
     public EasyMessage() {
+        this.handle = null;
+    }
+
+    private EasyMessage(Recycler.Handle<EasyMessage> handle) {
+        this.handle = handle;
+    }
+
+    public EasyMessage(char magic, MessageVersion version, MessageType type, long id, long timestamp, int length, byte[] data) {
+        this.handle = null;
+        this.magic = magic;
+        this.version = version;
+        setType(type);
+        this.id = id;
+        this.timestamp = timestamp;
+        this.length = length;
+        this.data = data;
+    }
+
+    public EasyMessage(char magic, MessageVersion version, MessageType type, long id, long timestamp, int length, ByteBuf payload) {
+        this.handle = null;
+        this.magic = magic;
+        this.version = version;
+        setType(type);
+        this.id = id;
+        this.timestamp = timestamp;
+        this.length = length;
+        this.payload = payload;
     }
 
     public EasyMessage(MessageVersion version, MessageType type, long id, long timestamp, byte[] data) {
+        this.handle = null;
         this.version = version;
-        this.type = type;
+        setType(type);
         this.id = id;
         this.timestamp = timestamp;
         this.length = data.length;
@@ -43,21 +119,124 @@ public class EasyMessage {
     }
 
     public static final int MESSAGE_FIXED_SIZE = 2 + 1 + 1 + 8 + 8 + 4;
+    /**
+     * 服务端主动发起的心跳探测所使用的消息ID，客户端以相同ID回应，服务端收到后不再回应
+     */
+    public static final long PROBE_ID = 0L;
+
+    /**
+     * 从对象池获取一个空消息，引用计数为 1，释放后自动归还
+     * @return {@link EasyMessage}
+     */
+    public static EasyMessage newInstance() {
+        EasyMessage message = RECYCLER.get();
+        message.setRefCnt(1);
+        return message;
+    }
+
+    /**
+     * 从对象池获取消息并填充字段
+     * @param version   协议版本
+     * @param type      消息类型
+     * @param id        消息ID
+     * @param timestamp 时间戳
+     * @param payload   数据体，所有权转移给消息，可为 null
+     * @return {@link EasyMessage}
+     */
+    public static EasyMessage newInstance(MessageVersion version, MessageType type, long id, long timestamp, ByteBuf payload) {
+        EasyMessage message = newInstance();
+        message.version = version;
+        message.setType(type);
+        message.id = id;
+        message.timestamp = timestamp;
+        message.length = payload == null ? 0 : payload.readableBytes();
+        message.payload = payload;
+        return message;
+    }
+
+    /**
+     * 设置内置消息类型，同时更新类型码
+     * @param type 消息类型
+     */
+    public void setType(MessageType type) {
+        this.type = type;
+        if (type != null) {
+            this.typeCode = type.getValue();
+        }
+    }
+
+    /**
+     * 设置类型码，内置类型码会同时解析为 {@link MessageType}
+     * @param typeCode 类型码
+     */
+    public void setTypeCode(byte typeCode) {
+        this.typeCode = typeCode;
+        this.type = MessageType.lookup(typeCode);
+    }
+
+    /**
+     * 获取数据体字节数组，零拷贝模式下首次调用时从 payload 拷贝一份（仅供旧处理器使用）
+     * @return 数据体，无数据体时返回 null
+     */
+    public byte[] getData() {
+        if (data == null && payload != null) {
+            data = ByteBufUtil.getBytes(payload, payload.readerIndex(), payload.readableBytes(), false);
+        }
+        return data;
+    }
+
+    /**
+     * 以指定字符集解析数据体，零拷贝模式下不会产生中间 byte[]
+     * @param charset 字符集
+     * @return 数据体字符串，无数据体时返回空串
+     */
+    public String getDataAsString(Charset charset) {
+        if (payload != null) {
+            return payload.toString(charset);
+        }
+        return data == null ? "" : new String(data, charset);
+    }
 
     /**
      * 序列化为字节流
      * @return {@link ByteBuf}
      */
     public ByteBuf toByteBuf() {
-        ByteBuf buf = Unpooled.buffer(MESSAGE_FIXED_SIZE + Math.max(length, data.length));
+        int bodySize = payload != null ? payload.readableBytes() : data.length;
+        ByteBuf buf = Unpooled.buffer(version.getHeaderSize() + Math.max(length, bodySize));
+        writeHeader(buf);
+        if (payload != null) {
+            buf.writeBytes(payload, payload.readerIndex(), payload.readableBytes());
+        } else {
+            buf.writeBytes(data);
+        }
+        return buf;
+    }
+
+    /**
+     * 将固定长度的报文头写入目标缓冲区
+     * @param buf 目标缓冲区，至少有 {@link MessageVersion#getHeaderSize()} 字节可写
+     */
+    public void writeHeader(ByteBuf buf) {
+        writeHeader(buf, length, flags);
+    }
+
+    /**
+     * 以指定的数据体长度与标志位写入报文头（数据体经过压缩等变换时使用）
+     * @param buf    目标缓冲区
+     * @param length 线上数据体长度
+     * @param flags  标志位，V1 报文忽略
+     */
+    public void writeHeader(ByteBuf buf, int length, byte flags) {
         buf.writeShort(magic)
                 .writeByte(version.getValue())
-                .writeByte(type.getValue())
+                .writeByte(typeCode)
                 .writeLong(id)
                 .writeLong(timestamp)
-                .writeInt(length)
-                .writeBytes(data);
-        return buf;
+                .writeInt(length);
+        if (version.hasFlags()) {
+            buf.writeByte(flags);
+        }
     }
 
     /**
@@ -79,6 +258,56 @@ public class EasyMessage {
         return message;
     }
 
+    @Override
+    public EasyMessage retain() {
+        super.retain();
+        return this;
+    }
+
+    @Override
+    public EasyMessage retain(int increment) {
+        super.retain(increment);
+        return this;
+    }
+
+    @Override
+    public EasyMessage touch() {
+        return touch(null);
+    }
+
+    @Override
+    public EasyMessage touch(Object hint) {
+        if (payload != null) {
+            payload.touch(hint);
+        }
+        return this;
+    }
+
+    /**
+     * 引用计数归零，释放数据体，池化实例清空字段后归还对象池
+     */
+    @Override
+    protected void deallocate() {
+        if (payload != null) {
+            payload.release();
+            payload = null;
+        }
+        if (handle != null) {
+            magic = '@';
+            version = null;
+            type = null;
+            typeCode = 0;
+            id = 0;
+            timestamp = 0;
+            length = 0;
+            flags = 0;
+            data = null;
+            chunked = false;
+            droppable = false;
+            handle.recycle(this);
+        }
+    }
+
     public static void main(String[] args) {
         EasyMessage message = new EasyMessage();
         message.setMagic('@');
@@ -5,6 +5,8 @@ import lombok.Getter;
 
 /**
  * 数据包类型
+ * <p>
+ * 这里只列出内置类型，应用可以使用其他类型码自定义消息，见 {@link EasyMessage#getTypeCode()}。
  *
  * @author Zero.
  * <p> Created on 2025/5/28 16:08 </p>
@@ -16,15 +18,38 @@ public enum MessageType {
     HEART_BEAT((byte) 0),
     /// 数据包
     NORMAL((byte) 1),
+    /// 服务端即将下线：客户端不应再发送新请求，在途请求完成后关闭连接并重连到其他实例
+    GO_AWAY((byte) 2),
+    /// 登录：数据体为会话ID，服务端据此将会话绑定到连接，可按会话定向发送
+    LOGIN((byte) 3),
+    /// 集群节点间报文：会话归属同步与消息转发，见 {@code com.zero.nts.cluster.ClusterNode}
+    CLUSTER((byte) 4),
     ;
     private final byte value;
 
+    /** 按类型码索引的查找表，避免每次解码都遍历（并拷贝）values() */
+    private static final MessageType[] LOOKUP = new MessageType[256];
+
+    static {
+        for (MessageType item : values()) {
+            LOOKUP[item.value & 0xFF] = item;
+        }
+    }
+
     public static MessageType fromType(byte type) {
-        for (MessageType item : MessageType.values()) {
-            if (item.value == type) {
-                return item;
-            }
+        MessageType item = LOOKUP[type & 0xFF];
+        if (item == null) {
+            throw new IllegalArgumentException("Unknown message type: " + type);
         }
-        throw new IllegalArgumentException("Unknown message type: " + type);
+        return item;
+    }
+
+    /**
+     * 查找内置类型
+     * @param type 类型码
+     * @return 内置类型，自定义类型码返回 null
+     */
+    public static MessageType lookup(byte type) {
+        return LOOKUP[type & 0xFF];
     }
 }
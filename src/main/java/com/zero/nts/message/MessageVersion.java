@@ -5,6 +5,11 @@ import lombok.Getter;
 
 /**
  * 协议版本
+ * <p>
+ *  - V1：24 字节固定报文头；
+ *  - V2：在 V1 报文头之后追加 1 字节 flags（低 3 位为数据体压缩算法，见 {@link com.zero.nts.codec.PayloadCompression}）。
+ * <p>
+ * 服务端以请求的版本回应，V1 客户端不受影响。
  *
  * @author Zero.
  * <p> Created on 2025/5/28 15:58 </p>
@@ -12,16 +17,43 @@ import lombok.Getter;
 @Getter
 @AllArgsConstructor
 public enum MessageVersion {
-    V1((byte) 1)
+    V1((byte) 1, EasyMessage.MESSAGE_FIXED_SIZE),
+    V2((byte) 2, EasyMessage.MESSAGE_FIXED_SIZE + 1),
     ;
     private final byte value;
+    /** 报文头长度 */
+    private final int headerSize;
+
+    /**
+     * 是否携带 flags 字段
+     */
+    public boolean hasFlags() {
+        return this != V1;
+    }
+
+    /** 按版本号索引的查找表 */
+    private static final MessageVersion[] LOOKUP = new MessageVersion[256];
+
+    static {
+        for (MessageVersion item : values()) {
+            LOOKUP[item.value & 0xFF] = item;
+        }
+    }
 
     public static MessageVersion fromVersion(byte version) {
-        for (MessageVersion item : MessageVersion.values()) {
-            if (item.value == version) {
-                return item;
-            }
+        MessageVersion item = LOOKUP[version & 0xFF];
+        if (item == null) {
+            throw new IllegalArgumentException("Invalid version: " + version);
         }
-        throw new IllegalArgumentException("Invalid version: " + version);
+        return item;
+    }
+
+    /**
+     * 查找协议版本
+     * @param version 版本号
+     * @return 协议版本，未知版本返回 null
+     */
+    public static MessageVersion lookup(byte version) {
+        return LOOKUP[version & 0xFF];
     }
 }
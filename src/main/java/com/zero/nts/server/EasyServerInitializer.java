@@ -0,0 +1,72 @@
+package com.zero.nts.server;
+
+import com.zero.nts.codec.EasyDecoder;
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.server.dispatch.DispatchStage;
+import com.zero.nts.server.flow.RateLimiter;
+import com.zero.nts.server.flow.WriteBackpressure;
+import com.zero.nts.server.handler.EasyServerHandler;
+import com.zero.nts.server.idle.LivenessManager;
+import com.zero.nts.server.logging.WireLogger;
+import com.zero.nts.server.metrics.ServerMetrics;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelInitializer;
+import io.netty.handler.flush.FlushConsolidationHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 客户端连接的 pipeline 初始化器
+ * <p>
+ * 独立为 Bean 后，基准测试等场景可以在 {@link io.netty.channel.embedded.EmbeddedChannel} 上构建与线上完全一致的 pipeline。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/17 15:30 </p>
+ */
+@Component
+@ChannelHandler.Sharable
+@RequiredArgsConstructor
+public class EasyServerInitializer extends ChannelInitializer<Channel> {
+    private final EasyServerHandler serverHandler;
+    private final NettyProperties properties;
+    private final DispatchStage dispatchStage;
+    private final LivenessManager livenessManager;
+    private final WriteBackpressure writeBackpressure;
+    private final ServerMetrics serverMetrics;
+    private final WireLogger wireLogger;
+    private final RateLimiter rateLimiter;
+
+    @Override
+    protected void initChannel(Channel ch) throws Exception {
+        // 连接数与读写字节数统计，位于最靠近 Socket 的位置
+        ch.pipeline().addLast(serverMetrics.trafficHandler());
+        if (properties.getFlush().getExplicitFlushAfterFlushes() > 0) {
+            // 合并 flush，需放在 pipeline 头部，对所有出站 flush 生效
+            ch.pipeline().addLast(new FlushConsolidationHandler(properties.getFlush().getExplicitFlushAfterFlushes(), true));
+        }
+        NettyProperties.Codec codec = properties.getCodec();
+        ch.pipeline()
+                // 存活检测，由共享的时间轮批量检查，超时后发送 IdleStateEvent 事件
+                .addLast(livenessManager.handler())
+                .addLast(new EasyDecoder(codec.getPayloadMode(), codec.getMaxFrameSize(), codec.getStreamThreshold(), codec.getCumulator(), codec.getMaxDecompressedSize())) // 解码器
+                .addLast(new EasyEncoder(codec.getCompositeThreshold(), codec.getCompression(), codec.getCompressionThreshold(), codec.getMaxDecompressedSize())) // 编码器
+                // 写缓冲区背压，位于编码器之后以便识别可丢弃的消息
+                .addLast(writeBackpressure.handler())
+                // 报文数、解码错误与处理延迟统计
+                .addLast(serverMetrics.newFrameHandler())
+                // 采样、异步的报文日志
+                .addLast(wireLogger.handler())
+                // 连接、IP、全局限流，超出速率时暂停读取
+                .addLast(rateLimiter.handler());
+        if (dispatchStage.isOffloaded()) {
+            // 业务处理器卸载到独立执行器，同一 Channel 的消息仍按顺序处理
+            ch.pipeline()
+                    .addLast(dispatchStage.queueGuard())
+                    .addLast(dispatchStage.executorGroup(), serverHandler);
+        } else {
+            ch.pipeline().addLast(serverHandler);   // Channel 处理器
+        }
+    }
+}
@@ -1,17 +1,18 @@
 package com.zero.nts.server;
 
-import com.zero.nts.codec.EasyDecoder;
-import com.zero.nts.codec.EasyEncoder;
 import com.zero.nts.config.NettyProperties;
-import com.zero.nts.server.handler.EasyServerHandler;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import com.zero.nts.server.broadcast.BroadcastEngine;
+import com.zero.nts.server.flow.AdmissionControl;
+import com.zero.nts.server.flow.WriteBackpressure;
+import com.zero.nts.server.metrics.ServerMetrics;
+import com.zero.nts.transport.EventLoopThreadFactory;
+import com.zero.nts.transport.TransportType;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
-import io.netty.handler.timeout.IdleStateHandler;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -19,8 +20,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.BeanCreationException;
 import org.springframework.stereotype.Component;
 
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Netty TCP Server
@@ -32,21 +33,46 @@ import java.util.concurrent.TimeUnit;
 @Component
 @RequiredArgsConstructor
 public class NettyTCPServer {
-    private final EasyServerHandler serverHandler;
+    private final EasyServerInitializer serverInitializer;
     private final NettyProperties properties;
+    private final WriteBackpressure writeBackpressure;
+    private final ServerMetrics serverMetrics;
+    private final AdmissionControl admissionControl;
+    private final BroadcastEngine broadcastEngine;
+
+    private static final long DRAIN_POLL_MILLIS = 50;
 
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
-    private Channel serverChannel;
+    private final List<Channel> serverChannels = new ArrayList<>();
 
     @PostConstruct
     public void start() {
-        // 创建事件循环
-        bossGroup = new NioEventLoopGroup(1);
-        workerGroup = new NioEventLoopGroup();
+        // 选择传输实现，原生传输不可用时回退到 NIO
+        TransportType transport = properties.getTransport().resolve();
+        // 多个监听 Channel 依赖 SO_REUSEPORT 由内核分发连接
+        boolean reusePort = properties.isReusePort() || properties.getAcceptors() > 1;
+        int acceptors = 1;
+        if (reusePort && transport.supportsReusePort()) {
+            acceptors = Math.max(1, properties.getAcceptors());
+        } else if (properties.getAcceptors() > 1) {
+            log.warn("[NettyTCPServer] {} does not support SO_REUSEPORT, fallback to single acceptor", transport);
+        }
+        log.info("[NettyTCPServer] Using {} transport with {} acceptor(s)", transport, acceptors);
+
+        // 创建事件循环，ioRatio 与忙轮询只作用于 worker，boss 只处理 accept
+        NettyProperties.EventLoop eventLoop = properties.getEventLoop();
+        bossGroup = transport.newEventLoopGroup(acceptors, new EventLoopThreadFactory(eventLoop.getBossThreadPrefix(),
+                EventLoopThreadFactory.parseCpus(eventLoop.getBossCpus())));
+        workerGroup = transport.newEventLoopGroup(eventLoop.getWorkerThreads(),
+                new EventLoopThreadFactory(eventLoop.getWorkerThreadPrefix(), EventLoopThreadFactory.parseCpus(eventLoop.getWorkerCpus())),
+                eventLoop.getIoRatio(), eventLoop.isBusyPoll());
+        serverMetrics.bindEventLoops("boss", bossGroup, eventLoop.getProbeInterval());
+        serverMetrics.bindEventLoops("worker", workerGroup, eventLoop.getProbeInterval());
         ServerBootstrap bootstrap = new ServerBootstrap();
+        transport.configureServer(bootstrap, reusePort && transport.supportsReusePort(), properties.getTcpFastOpen());
         bootstrap.group(bossGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(transport.serverChannelClass())
                 // 连接等待队列大小
                 .option(ChannelOption.SO_BACKLOG, properties.getBacklog())
                 // 连接超时时长
@@ -54,37 +80,31 @@ public class NettyTCPServer {
                 // 启用TCP心跳机制
                 .childOption(ChannelOption.SO_KEEPALIVE, properties.getKeepAlive())
                 .childOption(ChannelOption.TCP_NODELAY, properties.getNoDelay())
-                // 设置日志级别
-                .handler(new LoggingHandler(LogLevel.INFO))
-                .childHandler(new ChannelInitializer<SocketChannel>() {
+                // 写缓冲区水位，超过高水位后连接不可写，由 WriteBackpressure 按策略处理
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBackpressure.waterMark())
+                .handler(new ChannelInitializer<>() {
                     @Override
-                    protected void initChannel(SocketChannel ch) throws Exception {
+                    protected void initChannel(Channel ch) {
                         ch.pipeline()
-                                .addLast(new EasyDecoder()) // 解码器
-                                .addLast(new EasyEncoder()) // 编码器
-                                // 添加空闲事件器，channel 空闲10秒后将发送 IdleStateEvent 事件
-                                .addLast(new IdleStateHandler(0, 0, 10, TimeUnit.SECONDS))
-                                .addLast(serverHandler);   // Channel 处理器
+                                // 设置日志级别
+                                .addLast(new LoggingHandler(properties.getLevel()))
+                                // 连接准入，拒绝的连接不会进入 worker EventLoop
+                                .addLast(admissionControl.handler());
                     }
-                });
+                })
+                .childHandler(serverInitializer);
         try {
-            // 绑定地址并启动服务
-            ChannelFuture server = bootstrap.bind(properties.getAddress()).sync().addListener(future -> {
-                if (future.isSuccess()){
-                    log.info("[NettyTCPServer] Server started on port {}", properties.getAddress());
-                }
-            });
-            serverChannel = server.channel();
-            // 异步启动Netty服务,避免阻塞程序启动
-            CompletableFuture.runAsync(()-> {
-                try {
-                    serverChannel.closeFuture().sync().addListener(future-> {
-                        log.info("[NettyTCPServer] server channel closed");
-                    });
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
-                }
-            });
+            // 绑定地址并启动服务，开启 SO_REUSEPORT 时每个监听 Channel 独占一个 boss 线程
+            for (int i = 0; i < acceptors; i++) {
+                ChannelFuture server = bootstrap.bind(properties.getAddress()).sync().addListener(future -> {
+                    if (future.isSuccess()){
+                        log.info("[NettyTCPServer] Server started on port {}", properties.getAddress());
+                    }
+                });
+                Channel serverChannel = server.channel();
+                serverChannel.closeFuture().addListener(future -> log.info("[NettyTCPServer] server channel closed"));
+                serverChannels.add(serverChannel);
+            }
         } catch (InterruptedException e) {
             stop();
             throw new BeanCreationException("[NettyTCPServer] Startup failed", e);
@@ -92,12 +112,21 @@ public class NettyTCPServer {
     }
 
 
+    /**
+     * 优雅下线：
+     *  1. 关闭监听 Channel，不再接受新连接（开启 SO_REUSEPORT 时新进程已绑定同一端口，新连接由内核分给新进程）；
+     *  2. 向所有客户端发送 {@link MessageType#GO_AWAY}（包括不可写的慢消费者），客户端不再发送新请求，在途请求完成后自行断开；
+     *  3. 等待客户端全部断开，最长 {@link NettyProperties#getDrainTimeout()}；
+     *  4. 关闭 EventLoop，剩余连接随之关闭。
+     */
     @PreDestroy
     public void stop() {
         try {
-            if (null != serverChannel) {
+            for (Channel serverChannel : serverChannels) {
                 serverChannel.close().sync();
             }
+            serverChannels.clear();
+            drain();
             if (bossGroup != null) {
                 bossGroup.shutdownGracefully().sync().addListener(future -> {
                    if (future.isSuccess()) {
@@ -117,4 +146,26 @@ public class NettyTCPServer {
         }
         log.info("[NettyTCPServer] stopped.");
     }
+
+    private void drain() throws InterruptedException {
+        if (workerGroup == null || broadcastEngine.size() == 0) {
+            return;
+        }
+        EasyMessage goAway = new EasyMessage(MessageVersion.V1, MessageType.GO_AWAY, EasyMessage.PROBE_ID, System.currentTimeMillis(), new byte[0]);
+        int notified = broadcastEngine.sendToAll(goAway);
+        goAway.release();
+        log.info("[NettyTCPServer] draining {} connection(s), {} request(s) in flight", notified, serverMetrics.inFlightRequests());
+
+        long deadline = System.nanoTime() + properties.getDrainTimeout().toNanos();
+        // 客户端收到 GO_AWAY 后等在途请求完成再断开，以连接全部关闭为准，在途请求数仅用于日志
+        while (broadcastEngine.size() > 0) {
+            if (System.nanoTime() - deadline > 0) {
+                log.warn("[NettyTCPServer] drain timed out, {} request(s) in flight, {} connection(s) remaining",
+                        serverMetrics.inFlightRequests(), broadcastEngine.size());
+                return;
+            }
+            Thread.sleep(DRAIN_POLL_MILLIS);
+        }
+        log.info("[NettyTCPServer] drained, all connections closed");
+    }
 }
@@ -0,0 +1,239 @@
+package com.zero.nts.server.broadcast;
+
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelId;
+import io.netty.channel.EventLoop;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 广播引擎
+ * <p>
+ *  - 消息只编码一次，得到共享的引用计数报文，每个连接写出其 retainedDuplicate，不拷贝数据；
+ *  - 连接按所属 EventLoop 分组，每个 EventLoop 只提交一个任务完成该组所有连接的写出与 flush；
+ *  - 不可写（写缓冲区超过高水位）的连接直接丢弃本条消息，慢消费者不会拖慢整个广播；
+ *  - 支持主题订阅，订阅关系按 {@link ChannelId} 索引，连接关闭时自动退订。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/20 10:05 </p>
+ */
+@Slf4j
+@Component
+public class BroadcastEngine {
+    private final EasyEncoder encoder;
+    private final ByteBufAllocator alloc = ByteBufAllocator.DEFAULT;
+    /** 所有在线连接 */
+    private final ChannelSet all = new ChannelSet();
+    /** 主题 -> 订阅的连接 */
+    private final Map<String, ChannelSet> topics = new ConcurrentHashMap<>();
+    /** 连接ID -> 订阅的主题 */
+    private final Map<ChannelId, Set<String>> subscriptions = new ConcurrentHashMap<>();
+    private final ChannelFutureListener removeOnClose = future -> remove(future.channel());
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public BroadcastEngine(NettyProperties properties) {
+        NettyProperties.Codec codec = properties.getCodec();
+        this.encoder = new EasyEncoder(codec.getCompositeThreshold(), codec.getCompression(), codec.getCompressionThreshold(),
+                codec.getMaxDecompressedSize());
+    }
+
+    /**
+     * 加入广播范围，连接关闭后自动移除
+     * @param channel 连接
+     */
+    public void register(Channel channel) {
+        if (all.add(channel)) {
+            channel.closeFuture().addListener(removeOnClose);
+        }
+    }
+
+    /**
+     * 订阅主题
+     * @param channel 连接
+     * @param topic   主题
+     */
+    public void subscribe(Channel channel, String topic) {
+        subscriptions.computeIfAbsent(channel.id(), id -> ConcurrentHashMap.newKeySet()).add(topic);
+        topics.computeIfAbsent(topic, t -> new ChannelSet()).add(channel);
+        // 订阅期间连接已关闭，关闭监听器可能已执行完，这里补偿一次
+        if (!channel.isOpen()) {
+            remove(channel);
+        }
+    }
+
+    /**
+     * 退订主题
+     * @param channel 连接
+     * @param topic   主题
+     */
+    public void unsubscribe(Channel channel, String topic) {
+        Set<String> subscribed = subscriptions.get(channel.id());
+        if (subscribed != null) {
+            subscribed.remove(topic);
+        }
+        topics.computeIfPresent(topic, (t, channels) -> {
+            channels.remove(channel);
+            return channels.isEmpty() ? null : channels;
+        });
+    }
+
+    /**
+     * 向所有在线连接广播
+     * @param message 消息，调用方仍持有其所有权
+     * @return 本次投递的目标连接数
+     */
+    public int broadcast(EasyMessage message) {
+        return fanOut(all, message);
+    }
+
+    /**
+     * 向所有在线连接广播已编码的报文（例如其他节点转发而来的报文）
+     * @param frame 报文，调用方仍持有其所有权
+     * @return 本次投递的目标连接数
+     */
+    public int broadcast(ByteBuf frame) {
+        return fanOut(all, frame, false);
+    }
+
+    /**
+     * 向所有在线连接写出消息，不跳过不可写的连接：用于必须送达每个客户端的控制消息（例如 GO_AWAY），
+     * 慢消费者同样需要收到，消息排在其写缓冲区之后
+     * @param message 消息，调用方仍持有其所有权
+     * @return 本次投递的目标连接数
+     */
+    public int sendToAll(EasyMessage message) {
+        if (all.isEmpty()) {
+            return 0;
+        }
+        ByteBuf frame = encoder.encode(alloc, message);
+        try {
+            return fanOut(all, frame, true);
+        } finally {
+            frame.release();
+        }
+    }
+
+    /**
+     * 向主题的订阅者广播
+     * @param topic   主题
+     * @param message 消息，调用方仍持有其所有权
+     * @return 本次投递的目标连接数
+     */
+    public int publish(String topic, EasyMessage message) {
+        ChannelSet channels = topics.get(topic);
+        return channels == null ? 0 : fanOut(channels, message);
+    }
+
+    private int fanOut(ChannelSet channels, EasyMessage message) {
+        if (channels.isEmpty()) {
+            return 0;
+        }
+        ByteBuf frame = encoder.encode(alloc, message);
+        try {
+            return fanOut(channels, frame, false);
+        } finally {
+            frame.release();
+        }
+    }
+
+    private int fanOut(ChannelSet channels, ByteBuf frame, boolean force) {
+        for (Map.Entry<EventLoop, Set<Channel>> entry : channels.byLoop().entrySet()) {
+            Set<Channel> group = entry.getValue();
+            if (group.isEmpty()) {
+                continue;
+            }
+            frame.retain();
+            entry.getKey().execute(() -> writeGroup(group, frame, force));
+        }
+        return channels.size();
+    }
+
+    /**
+     * 在 EventLoop 中写出同组的所有连接
+     * @param force 是否同样写给不可写的连接
+     */
+    private void writeGroup(Set<Channel> group, ByteBuf frame, boolean force) {
+        try {
+            for (Channel channel : group) {
+                if (!channel.isActive()) {
+                    continue;
+                }
+                if (!force && !channel.isWritable()) {
+                    // 慢消费者，丢弃本条消息
+                    dropped.increment();
+                    continue;
+                }
+                channel.writeAndFlush(frame.retainedDuplicate(), channel.voidPromise());
+                delivered.increment();
+            }
+        } finally {
+            frame.release();
+        }
+    }
+
+    private void remove(Channel channel) {
+        all.remove(channel);
+        Set<String> subscribed = subscriptions.remove(channel.id());
+        if (subscribed != null) {
+            for (String topic : subscribed) {
+                topics.computeIfPresent(topic, (t, channels) -> {
+                    channels.remove(channel);
+                    return channels.isEmpty() ? null : channels;
+                });
+            }
+        }
+    }
+
+    /**
+     * 遍历所有在线连接（弱一致，遍历期间的连接变化可能不可见）
+     * @param action 对每个连接执行的操作
+     */
+    public void forEachChannel(Consumer<Channel> action) {
+        for (Set<Channel> group : all.byLoop().values()) {
+            group.forEach(action);
+        }
+    }
+
+    /**
+     * 在线连接数
+     */
+    public int size() {
+        return all.size();
+    }
+
+    /**
+     * 主题的订阅者数
+     */
+    public int subscribers(String topic) {
+        ChannelSet channels = topics.get(topic);
+        return channels == null ? 0 : channels.size();
+    }
+
+    /**
+     * 累计成功写出的消息数
+     */
+    public long delivered() {
+        return delivered.sum();
+    }
+
+    /**
+     * 累计因连接不可写而丢弃的消息数
+     */
+    public long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,49 @@
+package com.zero.nts.server.broadcast;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoop;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 按 EventLoop 分组的连接集合，广播时每个 EventLoop 只需提交一个任务
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/20 10:12 </p>
+ */
+class ChannelSet {
+    private final Map<EventLoop, Set<Channel>> byLoop = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    boolean add(Channel channel) {
+        boolean added = byLoop.computeIfAbsent(channel.eventLoop(), loop -> ConcurrentHashMap.newKeySet()).add(channel);
+        if (added) {
+            size.incrementAndGet();
+        }
+        return added;
+    }
+
+    boolean remove(Channel channel) {
+        Set<Channel> channels = byLoop.get(channel.eventLoop());
+        boolean removed = channels != null && channels.remove(channel);
+        if (removed) {
+            size.decrementAndGet();
+        }
+        return removed;
+    }
+
+    Map<EventLoop, Set<Channel>> byLoop() {
+        return byLoop;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    boolean isEmpty() {
+        return size.get() == 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.zero.nts.server.dispatch;
+
+/**
+ * 业务处理器的执行方式
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/9 10:40 </p>
+ */
+public enum DispatchMode {
+    /// 直接在 worker EventLoop 中执行，适合无阻塞的处理逻辑
+    INLINE,
+    /// 在独立的有界 EventExecutorGroup 中执行
+    EXECUTOR,
+    /// 每个连接一个有序执行器，消息在虚拟线程中执行，阻塞调用只会挂起本连接的虚拟线程
+    VIRTUAL,
+    ;
+}
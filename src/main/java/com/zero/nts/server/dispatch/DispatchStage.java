@@ -0,0 +1,137 @@
+package com.zero.nts.server.dispatch;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.server.flow.ReadGate;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.NettyRuntime;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutorGroup;
+import io.netty.util.concurrent.NonStickyEventExecutorGroup;
+import io.netty.util.concurrent.RejectedExecutionHandlers;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 编解码与业务处理器之间的分发阶段
+ * <p>
+ * 非 INLINE 模式下业务处理器绑定到独立的 {@link EventExecutorGroup}，消息顺序不变：
+ *  - EXECUTOR：固定数量的 EventExecutor，同一 Channel 始终由同一个执行器执行，共享执行器的 Channel 互相影响；
+ *  - VIRTUAL：每个 Channel 一个不绑定线程的有序执行器（{@link NonStickyEventExecutorGroup}），
+ *    每批消息在新的虚拟线程中执行，处理器阻塞只影响本 Channel。
+ * 每个 Channel 排队未处理的消息数超过高水位时暂停读取（TCP 背压），回落到低水位后恢复。
+ * EXECUTOR 模式下执行器队列已满（maxPendingTasks）时拒绝的消息立即释放，并关闭该连接。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/9 10:52 </p>
+ */
+@Slf4j
+@Component
+public class DispatchStage {
+    private static final AttributeKey<AtomicInteger> QUEUED = AttributeKey.valueOf("nts.dispatchQueued");
+
+    private final DispatchMode mode;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private final EventExecutorGroup executorGroup;
+    private final QueueGuard queueGuard = new QueueGuard();
+
+    public DispatchStage(NettyProperties properties) {
+        NettyProperties.Dispatch dispatch = properties.getDispatch();
+        this.mode = dispatch.getMode();
+        this.highWaterMark = dispatch.getHighWaterMark();
+        this.lowWaterMark = Math.min(dispatch.getLowWaterMark(), highWaterMark);
+        this.executorGroup = switch (mode) {
+            case INLINE -> null;
+            case EXECUTOR -> new DefaultEventExecutorGroup(threads(dispatch, NettyRuntime.availableProcessors() * 2),
+                    new DefaultThreadFactory("nts-biz"), dispatch.getMaxPendingTasks(), RejectedExecutionHandlers.reject());
+            case VIRTUAL -> new NonStickyEventExecutorGroup(new VirtualThreadEventExecutor());
+        };
+        log.info("[DispatchStage] business handler dispatch mode: {}", mode);
+    }
+
+    /**
+     * 业务处理器所在的执行器组
+     * @return INLINE 模式返回 null，即在 worker EventLoop 中执行
+     */
+    public EventExecutorGroup executorGroup() {
+        return executorGroup;
+    }
+
+    /**
+     * 是否将业务处理器从 EventLoop 中卸载
+     */
+    public boolean isOffloaded() {
+        return executorGroup != null;
+    }
+
+    /**
+     * 放在业务处理器之前、运行在 EventLoop 中的排队计数器
+     */
+    public ChannelHandler queueGuard() {
+        return queueGuard;
+    }
+
+    /**
+     * 业务处理器处理完一条消息后调用，排队数回落到低水位时恢复读取
+     * @param channel   连接
+     */
+    public void completed(Channel channel) {
+        if (!isOffloaded()) {
+            return;
+        }
+        AtomicInteger queued = channel.attr(QUEUED).get();
+        if (queued != null && queued.decrementAndGet() <= lowWaterMark
+                && ReadGate.isSuspended(channel, ReadGate.DISPATCH_QUEUE)) {
+            ReadGate.resume(channel, ReadGate.DISPATCH_QUEUE);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executorGroup != null) {
+            executorGroup.shutdownGracefully();
+        }
+    }
+
+    private static int threads(NettyProperties.Dispatch dispatch, int defaultThreads) {
+        return dispatch.getThreads() > 0 ? dispatch.getThreads() : defaultThreads;
+    }
+
+    @ChannelHandler.Sharable
+    private class QueueGuard extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            ctx.channel().attr(QUEUED).set(new AtomicInteger());
+            super.channelActive(ctx);
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            AtomicInteger queued = ctx.channel().attr(QUEUED).get();
+            if (queued != null && queued.incrementAndGet() >= highWaterMark) {
+                ReadGate.suspend(ctx.channel(), ReadGate.DISPATCH_QUEUE);
+            }
+            try {
+                ctx.fireChannelRead(msg);
+            } catch (RejectedExecutionException e) {
+                // 执行器队列已满，消息未能入队：释放消息并关闭连接，避免泄漏与排队计数失真
+                if (queued != null) {
+                    queued.decrementAndGet();
+                }
+                ReferenceCountUtil.release(msg);
+                log.warn("[DispatchStage] dispatch queue full, closing channel: {}", ctx.channel().remoteAddress());
+                ctx.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.zero.nts.server.dispatch;
+
+import io.netty.util.concurrent.AbstractEventExecutor;
+import io.netty.util.concurrent.DefaultPromise;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.concurrent.Promise;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个任务一个虚拟线程的执行器（无序），由 {@link io.netty.util.concurrent.NonStickyEventExecutorGroup} 包装后
+ * 为每个 Channel 提供一个有序执行器：同一 Channel 的消息按顺序处理，但不绑定固定线程，
+ * 阻塞的处理器只挂起自己所在 Channel 的虚拟线程，不影响其他 Channel。
+ * <p>
+ * 不支持定时任务。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/26 16:40 </p>
+ */
+final class VirtualThreadEventExecutor extends AbstractEventExecutor {
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("nts-biz-vt-", 0).factory());
+    private final Promise<?> terminationFuture = new DefaultPromise<>(GlobalEventExecutor.INSTANCE);
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    @Override
+    public boolean inEventLoop(Thread thread) {
+        return false;
+    }
+
+    @Override
+    public boolean isShuttingDown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public Future<?> shutdownGracefully(long quietPeriod, long timeout, TimeUnit unit) {
+        shutdown();
+        return terminationFuture;
+    }
+
+    @Override
+    public Future<?> terminationFuture() {
+        return terminationFuture;
+    }
+
+    @Override
+    @Deprecated
+    public void shutdown() {
+        if (executor.isShutdown()) {
+            return;
+        }
+        executor.shutdown();
+        // 等待已提交的任务执行完后完成 terminationFuture，不阻塞调用方
+        Thread.ofVirtual().name("nts-biz-vt-shutdown").start(() -> {
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            terminationFuture.trySuccess(null);
+        });
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,187 @@
+package com.zero.nts.server.flow;
+
+import com.zero.nts.config.NettyProperties;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接准入控制
+ * <p>
+ * 作为监听 Channel 的 handler，位于 ServerBootstrapAcceptor 之前：新连接先在这里按总连接数、单 IP 连接数、
+ * 接受速率检查，被拒绝的连接直接关闭，不会注册到 worker EventLoop，也不会构建子 pipeline，
+ * 重连风暴时 worker 线程不必为无法服务的客户端初始化 pipeline。
+ * <p>
+ * 准入的连接在关闭时归还名额；ServerBootstrapAcceptor 初始化或注册子连接失败时以 closeForcibly() 关闭，
+ * closeFuture 不会完成，此时在交给 ServerBootstrapAcceptor 之后立即归还。名额只归还一次。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/24 16:10 </p>
+ */
+@Slf4j
+@Component
+public class AdmissionControl {
+    private final int maxConnections;
+    private final int maxConnectionsPerIp;
+    private final long acceptsPerSecond;
+    private final long acceptTolerance;
+
+    private final AtomicInteger connections = new AtomicInteger();
+    /** IP -> 连接数，增减都在 ConcurrentHashMap.compute 中完成 */
+    private final Map<InetAddress, Integer> perIp = new ConcurrentHashMap<>();
+    private final GcraBucket acceptBucket = new GcraBucket();
+    private final AdmissionHandler handler = new AdmissionHandler();
+
+    private final LongAdder rejectedTotal = new LongAdder();
+    private final LongAdder rejectedPerIp = new LongAdder();
+    private final LongAdder rejectedRate = new LongAdder();
+
+    public AdmissionControl(NettyProperties properties) {
+        NettyProperties.Admission admission = properties.getAdmission();
+        this.maxConnections = admission.getMaxConnections();
+        this.maxConnectionsPerIp = admission.getMaxConnectionsPerIp();
+        this.acceptsPerSecond = admission.getAcceptsPerSecond();
+        this.acceptTolerance = acceptsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(Math.max(1, admission.getAcceptBurst())) / acceptsPerSecond : 0;
+    }
+
+    /**
+     * 监听 Channel 上的准入处理器，多个监听 Channel（SO_REUSEPORT）共享计数
+     */
+    public ChannelHandler handler() {
+        return handler;
+    }
+
+    /**
+     * 当前已接受的连接数
+     */
+    public int connections() {
+        return connections.get();
+    }
+
+    /**
+     * 因总连接数超限而拒绝的连接数
+     */
+    public long rejectedByTotal() {
+        return rejectedTotal.sum();
+    }
+
+    /**
+     * 因单 IP 连接数超限而拒绝的连接数
+     */
+    public long rejectedByIp() {
+        return rejectedPerIp.sum();
+    }
+
+    /**
+     * 因接受速率超限而拒绝的连接数
+     */
+    public long rejectedByRate() {
+        return rejectedRate.sum();
+    }
+
+    /**
+     * 检查并占用连接名额
+     * @param child 新接受的连接
+     * @return 占用的名额，拒绝时返回 null
+     */
+    Lease admit(Channel child) {
+        if (acceptsPerSecond > 0 && !acceptBucket.tryConsume(1, System.nanoTime(), acceptsPerSecond, acceptTolerance)) {
+            rejectedRate.increment();
+            return null;
+        }
+        if (connections.incrementAndGet() > maxConnections && maxConnections > 0) {
+            connections.decrementAndGet();
+            rejectedTotal.increment();
+            return null;
+        }
+        InetAddress address = maxConnectionsPerIp > 0 ? address(child.remoteAddress()) : null;
+        if (address != null && !retainIp(address)) {
+            connections.decrementAndGet();
+            rejectedPerIp.increment();
+            return null;
+        }
+        Lease lease = new Lease(address);
+        child.closeFuture().addListener((ChannelFutureListener) future -> lease.release());
+        return lease;
+    }
+
+    private boolean retainIp(InetAddress address) {
+        boolean[] retained = new boolean[1];
+        perIp.compute(address, (key, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= maxConnectionsPerIp) {
+                return count;
+            }
+            retained[0] = true;
+            return current + 1;
+        });
+        return retained[0];
+    }
+
+    private void releaseIp(InetAddress address) {
+        perIp.computeIfPresent(address, (key, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private static InetAddress address(SocketAddress remote) {
+        return remote instanceof InetSocketAddress inet ? inet.getAddress() : null;
+    }
+
+    /**
+     * 一个连接占用的名额，连接关闭或注册失败时归还，只归还一次
+     */
+    final class Lease {
+        private final InetAddress address;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(InetAddress address) {
+            this.address = address;
+        }
+
+        void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            connections.decrementAndGet();
+            if (address != null) {
+                releaseIp(address);
+            }
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private class AdmissionHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (!(msg instanceof Channel child)) {
+                ctx.fireChannelRead(msg);
+                return;
+            }
+            Lease lease = admit(child);
+            if (lease == null) {
+                log.debug("[AdmissionControl] connection rejected: {}", child.remoteAddress());
+                // 尚未注册到 EventLoop，直接关闭底层 Socket
+                child.unsafe().closeForcibly();
+                return;
+            }
+            ctx.fireChannelRead(msg);
+            // ServerBootstrapAcceptor 初始化或注册失败时以 closeForcibly() 关闭，不会完成 closeFuture
+            if (!child.isOpen()) {
+                lease.release();
+            }
+        }
+    }
+}
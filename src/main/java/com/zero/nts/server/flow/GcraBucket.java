@@ -0,0 +1,73 @@
+package com.zero.nts.server.flow;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶（GCRA，通用信元速率算法）
+ * <p>
+ * 只保存一个“理论到达时间”（TAT），每次消耗以 CAS 推进，没有后台补充令牌的线程。
+ * 消耗总会被记账（不丢弃已经解码的消息），超出速率时返回需要等待的时间，由调用方暂停读取。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/24 10:05 </p>
+ */
+final class GcraBucket {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * 消耗令牌
+     * @param cost          消耗的令牌数（消息数或字节数）
+     * @param now           当前时间（纳秒）
+     * @param rate          每秒令牌数
+     * @param tolerance     突发容忍时间（纳秒），突发量 = rate * tolerance
+     * @return 恢复到符合速率还需等待的纳秒数，0 表示未超出
+     */
+    long consume(long cost, long now, long rate, long tolerance) {
+        // 以纳秒记账，按字节限速时单个令牌的间隔可能小于 1ns，因此先乘后除
+        long increment = saturatedMultiply(cost, NANOS_PER_SECOND) / rate;
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long next = saturatedAdd(base, increment);
+            if (tat.compareAndSet(current, next)) {
+                long delay = next - tolerance - now;
+                return Math.max(0, delay);
+            }
+        }
+    }
+
+    /**
+     * 尝试消耗令牌，超出速率时不记账
+     * @param cost      消耗的令牌数
+     * @param now       当前时间（纳秒）
+     * @param rate      每秒令牌数
+     * @param tolerance 突发容忍时间（纳秒）
+     * @return 是否符合速率
+     */
+    boolean tryConsume(long cost, long now, long rate, long tolerance) {
+        long increment = saturatedMultiply(cost, NANOS_PER_SECOND) / rate;
+        while (true) {
+            long current = tat.get();
+            long next = saturatedAdd(Math.max(current, now), increment);
+            if (next - tolerance > now) {
+                return false;
+            }
+            if (tat.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return (high == 0 && low >= 0) ? low : Long.MAX_VALUE;
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+}
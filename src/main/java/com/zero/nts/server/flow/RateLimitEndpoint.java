@@ -0,0 +1,58 @@
+package com.zero.nts.server.flow;
+
+import com.zero.nts.config.NettyProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 限流规则的 Actuator 端点
+ * <p>
+ *  - GET /actuator/ratelimit：查看当前规则；
+ *  - POST /actuator/ratelimit：{"scope": "channel|ip|global", "messagesPerSecond": 1000, "bytesPerSecond": 1048576}，
+ *    未提供的字段保持不变，修改后立即生效。
+ * <p>
+ * 写操作可以解除全部限流且没有鉴权，因此端点默认关闭、不在默认暴露列表中。需要时同时配置：
+ * <pre>
+ * management.endpoint.ratelimit.enabled=true
+ * management.endpoints.web.exposure.include=health,metrics,ratelimit
+ * </pre>
+ * 并将管理端口限制在内网，例如 management.server.port=8081、management.server.address=127.0.0.1。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/24 14:30 </p>
+ */
+@Component
+@Endpoint(id = "ratelimit", enableByDefault = false)
+@RequiredArgsConstructor
+public class RateLimitEndpoint {
+    private final NettyProperties properties;
+    private final RateLimiter rateLimiter;
+
+    @ReadOperation
+    public NettyProperties.RateLimit rules() {
+        return properties.getRateLimit();
+    }
+
+    @WriteOperation
+    public synchronized NettyProperties.RateLimit update(String scope, @Nullable Long messagesPerSecond, @Nullable Long bytesPerSecond) {
+        NettyProperties.RateLimit config = properties.getRateLimit();
+        NettyProperties.Limit limit = switch (scope) {
+            case "channel" -> config.getChannel();
+            case "ip" -> config.getIp();
+            case "global" -> config.getGlobal();
+            default -> throw new IllegalArgumentException("Unknown rate limit scope: " + scope);
+        };
+        if (messagesPerSecond != null) {
+            limit.setMessagesPerSecond(messagesPerSecond);
+        }
+        if (bytesPerSecond != null) {
+            limit.setBytesPerSecond(bytesPerSecond);
+        }
+        rateLimiter.reload(config);
+        return config;
+    }
+}
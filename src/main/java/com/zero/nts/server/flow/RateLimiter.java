@@ -0,0 +1,192 @@
+package com.zero.nts.server.flow;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyContent;
+import com.zero.nts.message.EasyMessage;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接、客户端 IP、全局三级限流，分别限制每秒消息数与字节数
+ * <p>
+ * 每个维度使用无锁的 {@link GcraBucket}。超出速率时不丢弃已解码的消息，而是通过 {@link ReadGate#RATE_LIMIT}
+ * 暂停读取，等到令牌桶恢复后再继续读取，由 TCP 把压力传回客户端。
+ * 限流规则整体保存在一个不可变快照中，{@link #reload} 替换快照即可在运行时生效。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/24 10:20 </p>
+ */
+@Slf4j
+@Component
+public class RateLimiter {
+    private static final AttributeKey<ChannelBuckets> BUCKETS = AttributeKey.valueOf("nts.rateLimit");
+
+    private final Buckets global = new Buckets();
+    private final Map<InetAddress, Buckets> ips = new ConcurrentHashMap<>();
+    private final LimitHandler handler = new LimitHandler();
+    private final LongAdder throttled = new LongAdder();
+    private volatile Rules rules;
+
+    public RateLimiter(NettyProperties properties) {
+        reload(properties.getRateLimit());
+    }
+
+    /**
+     * 重新加载限流规则，已建立的连接立即按新规则限流
+     * @param config 限流配置
+     */
+    public void reload(NettyProperties.RateLimit config) {
+        Rules next = new Rules(config.getChannel().getMessagesPerSecond(), config.getChannel().getBytesPerSecond(),
+                config.getIp().getMessagesPerSecond(), config.getIp().getBytesPerSecond(),
+                config.getGlobal().getMessagesPerSecond(), config.getGlobal().getBytesPerSecond(),
+                config.getBurst().toNanos());
+        this.rules = next;
+        log.info("[RateLimiter] rules loaded: {}", next);
+    }
+
+    /**
+     * 放在解码器之后、业务处理器之前的限流处理器
+     */
+    public ChannelHandler handler() {
+        return handler;
+    }
+
+    /**
+     * 累计因超出速率而暂停读取的次数
+     */
+    public long throttledCount() {
+        return throttled.sum();
+    }
+
+    /**
+     * 计入读取到的消息
+     * @param buckets   连接的令牌桶
+     * @param messages  消息数（数据体分片为 0）
+     * @param bytes     字节数
+     * @return 需要暂停读取的纳秒数，0 表示未超出
+     */
+    long acquire(ChannelBuckets buckets, long messages, long bytes) {
+        Rules current = rules;
+        if (!current.enabled()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long delay = buckets.own.consume(current.channelMessages, current.channelBytes, messages, bytes, now, current.tolerance);
+        if (buckets.ip != null) {
+            delay = Math.max(delay, buckets.ip.consume(current.ipMessages, current.ipBytes, messages, bytes, now, current.tolerance));
+        }
+        return Math.max(delay, global.consume(current.globalMessages, current.globalBytes, messages, bytes, now, current.tolerance));
+    }
+
+    private void throttle(Channel channel, long delayNanos) {
+        // 已暂停时由已安排的恢复任务负责，恢复后的下一条消息会按最新的欠账重新计算
+        if (ReadGate.isSuspended(channel, ReadGate.RATE_LIMIT)) {
+            return;
+        }
+        throttled.increment();
+        ReadGate.suspend(channel, ReadGate.RATE_LIMIT);
+        channel.eventLoop().schedule(() -> ReadGate.resume(channel, ReadGate.RATE_LIMIT), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Buckets retainIp(SocketAddress address) {
+        if (!(address instanceof InetSocketAddress inet) || inet.getAddress() == null) {
+            return null;
+        }
+        return ips.compute(inet.getAddress(), (key, buckets) -> {
+            Buckets retained = buckets == null ? new Buckets() : buckets;
+            retained.connections++;
+            return retained;
+        });
+    }
+
+    private void releaseIp(SocketAddress address) {
+        if (address instanceof InetSocketAddress inet && inet.getAddress() != null) {
+            ips.computeIfPresent(inet.getAddress(), (key, buckets) -> --buckets.connections == 0 ? null : buckets);
+        }
+    }
+
+    /**
+     * 限流规则快照，速率为 0 表示不限
+     */
+    private record Rules(long channelMessages, long channelBytes, long ipMessages, long ipBytes,
+                         long globalMessages, long globalBytes, long tolerance) {
+        boolean enabled() {
+            return (channelMessages | channelBytes | ipMessages | ipBytes | globalMessages | globalBytes) != 0;
+        }
+    }
+
+    /**
+     * 一个维度的消息数与字节数令牌桶
+     */
+    static final class Buckets {
+        private final GcraBucket messages = new GcraBucket();
+        private final GcraBucket bytes = new GcraBucket();
+        /** 仅 IP 维度使用，引用该 IP 的连接数，在 ConcurrentHashMap.compute 中修改 */
+        private int connections;
+
+        long consume(long messageRate, long byteRate, long count, long size, long now, long tolerance) {
+            long delay = 0;
+            if (messageRate > 0 && count > 0) {
+                delay = messages.consume(count, now, messageRate, tolerance);
+            }
+            if (byteRate > 0 && size > 0) {
+                delay = Math.max(delay, bytes.consume(size, now, byteRate, tolerance));
+            }
+            return delay;
+        }
+    }
+
+    /**
+     * 连接自身与所属 IP 的令牌桶，IP 的令牌桶在该连接关闭前不会被移除
+     */
+    record ChannelBuckets(Buckets own, Buckets ip) {
+    }
+
+    @ChannelHandler.Sharable
+    private class LimitHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            ctx.channel().attr(BUCKETS).set(new ChannelBuckets(new Buckets(), retainIp(ctx.channel().remoteAddress())));
+            super.channelActive(ctx);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            if (ctx.channel().attr(BUCKETS).getAndSet(null) != null) {
+                releaseIp(ctx.channel().remoteAddress());
+            }
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            ChannelBuckets buckets = ctx.channel().attr(BUCKETS).get();
+            long delay = 0;
+            if (buckets != null) {
+                if (msg instanceof EasyMessage message) {
+                    // 流式报文头的数据体随分片计入
+                    delay = acquire(buckets, 1, message.getVersion().getHeaderSize() + (message.isChunked() ? 0 : message.getLength()));
+                } else if (msg instanceof EasyContent content) {
+                    delay = acquire(buckets, 0, content.content().readableBytes());
+                }
+            }
+            if (delay > 0) {
+                throttle(ctx.channel(), delay);
+            }
+            ctx.fireChannelRead(msg);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.zero.nts.server.flow;
+
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Channel 读取开关（autoRead）的统一入口
+ * <p>
+ * 多个背压来源（业务队列、写缓冲区、限流等）可能同时要求暂停读取，每个来源占用一个标志位，
+ * 只有所有标志位都清除后才会恢复读取，避免某个来源提前把其他来源的暂停覆盖掉。
+ * 实际的 setAutoRead 总在 Channel 所属的 EventLoop 中按最新状态执行，保证跨线程调用时结果一致。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/9 11:02 </p>
+ */
+public final class ReadGate {
+    /// 业务处理队列积压
+    public static final int DISPATCH_QUEUE = 1;
+    /// 写缓冲区超过高水位
+    public static final int WRITE_BUFFER = 1 << 1;
+    /// 超出限流速率
+    public static final int RATE_LIMIT = 1 << 2;
+    private static final AttributeKey<AtomicInteger> SUSPENDED = AttributeKey.valueOf("nts.readSuspended");
+
+    private ReadGate() {
+    }
+
+    /**
+     * 以指定原因暂停读取
+     * @param channel   连接
+     * @param reason    暂停原因标志位
+     */
+    public static void suspend(Channel channel, int reason) {
+        AtomicInteger flags = flags(channel);
+        int prev = flags.getAndUpdate(f -> f | reason);
+        if (prev == 0) {
+            apply(channel, flags);
+        }
+    }
+
+    /**
+     * 清除指定原因，所有原因都清除后恢复读取
+     * @param channel   连接
+     * @param reason    暂停原因标志位
+     */
+    public static void resume(Channel channel, int reason) {
+        AtomicInteger flags = flags(channel);
+        int prev = flags.getAndUpdate(f -> f & ~reason);
+        if (prev == reason) {
+            apply(channel, flags);
+        }
+    }
+
+    /**
+     * 是否因指定原因暂停了读取
+     */
+    public static boolean isSuspended(Channel channel, int reason) {
+        AtomicInteger flags = channel.attr(SUSPENDED).get();
+        return flags != null && (flags.get() & reason) != 0;
+    }
+
+    private static AtomicInteger flags(Channel channel) {
+        AtomicInteger flags = channel.attr(SUSPENDED).get();
+        if (flags == null) {
+            AtomicInteger created = new AtomicInteger();
+            flags = channel.attr(SUSPENDED).setIfAbsent(created);
+            if (flags == null) {
+                flags = created;
+            }
+        }
+        return flags;
+    }
+
+    private static void apply(Channel channel, AtomicInteger flags) {
+        if (channel.eventLoop().inEventLoop()) {
+            channel.config().setAutoRead(flags.get() == 0);
+        } else {
+            channel.eventLoop().execute(() -> channel.config().setAutoRead(flags.get() == 0));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.zero.nts.server.flow;
+
+/**
+ * 连接不可写（写缓冲区超过高水位）时的处理策略
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/20 15:10 </p>
+ */
+public enum SlowConsumerPolicy {
+    /// 暂停读取该连接，不再产生新的响应，直到写缓冲区回落到低水位
+    PAUSE_READ,
+    /// 丢弃低优先级消息（{@link com.zero.nts.message.EasyMessage#isDroppable()}），其余消息照常写出
+    DROP,
+    /// 持续不可写超过期限后断开连接
+    DISCONNECT,
+    ;
+}
@@ -0,0 +1,173 @@
+package com.zero.nts.server.flow;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundBuffer;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 写缓冲区背压
+ * <p>
+ * 写缓冲区超过 {@link WriteBufferWaterMark} 高水位后连接变为不可写，按 {@link SlowConsumerPolicy} 处理：
+ *  - PAUSE_READ：通过 {@link ReadGate} 暂停读取，客户端的请求积压在 TCP 接收窗口中，回落到低水位后恢复；
+ *  - DROP：丢弃不可写期间写出的低优先级消息；
+ *  - DISCONNECT：持续不可写超过期限后断开连接。
+ * 无论哪种策略，单个连接的写缓冲区都有上界，慢客户端不会拖垮服务端内存。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/20 15:20 </p>
+ */
+@Slf4j
+@Component
+public class WriteBackpressure {
+    private static final AttributeKey<ScheduledFuture<?>> DEADLINE = AttributeKey.valueOf("nts.writeDeadline");
+
+    private final SlowConsumerPolicy policy;
+    private final long disconnectTimeoutMillis;
+    private final WriteBufferWaterMark waterMark;
+    private final WritabilityHandler handler = new WritabilityHandler();
+
+    private final LongAdder unwritable = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    public WriteBackpressure(NettyProperties properties) {
+        NettyProperties.Write write = properties.getWrite();
+        this.policy = write.getSlowConsumerPolicy();
+        this.disconnectTimeoutMillis = write.getDisconnectTimeout().toMillis();
+        this.waterMark = new WriteBufferWaterMark(Math.min(write.getLowWaterMark(), write.getHighWaterMark()), write.getHighWaterMark());
+        log.info("[WriteBackpressure] write buffer water mark: {}, slow consumer policy: {}", waterMark, policy);
+    }
+
+    /**
+     * 连接的写缓冲区水位，设置到 {@link io.netty.channel.ChannelOption#WRITE_BUFFER_WATER_MARK}
+     */
+    public WriteBufferWaterMark waterMark() {
+        return waterMark;
+    }
+
+    /**
+     * 放在编码器之后（靠近业务处理器一侧）的可写性处理器，可以看到编码前的 {@link EasyMessage}
+     */
+    public ChannelHandler handler() {
+        return handler;
+    }
+
+    /**
+     * 连接写缓冲区中排队的字节数（包括尚未 flush 的消息）
+     * @param channel 连接
+     * @return 排队字节数，连接已关闭时返回 0
+     */
+    public static long queuedBytes(Channel channel) {
+        ChannelOutboundBuffer buffer = channel.unsafe().outboundBuffer();
+        return buffer == null ? 0 : buffer.totalPendingWriteBytes();
+    }
+
+    /**
+     * 累计变为不可写的次数
+     */
+    public long unwritableCount() {
+        return unwritable.sum();
+    }
+
+    /**
+     * 累计因不可写而丢弃的消息数
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * 累计因持续不可写而断开的连接数
+     */
+    public long disconnectedCount() {
+        return disconnected.sum();
+    }
+
+    @ChannelHandler.Sharable
+    private class WritabilityHandler extends ChannelDuplexHandler {
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+            Channel channel = ctx.channel();
+            if (channel.isWritable()) {
+                onWritable(channel);
+            } else {
+                unwritable.increment();
+                log.debug("[WriteBackpressure] channel {} unwritable, queued bytes: {}", channel.remoteAddress(), queuedBytes(channel));
+                onUnwritable(channel);
+            }
+            super.channelWritabilityChanged(ctx);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (policy == SlowConsumerPolicy.DROP && !ctx.channel().isWritable()
+                    && msg instanceof EasyMessage message && message.isDroppable()) {
+                dropped.increment();
+                ReferenceCountUtil.release(msg);
+                // voidPromise 上设置失败会触发 exceptionCaught 关闭连接，丢弃不应影响连接
+                if (!promise.isVoid()) {
+                    promise.trySuccess();
+                }
+                return;
+            }
+            ctx.write(msg, promise);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            cancelDeadline(ctx.channel());
+            super.channelInactive(ctx);
+        }
+    }
+
+    private void onUnwritable(Channel channel) {
+        switch (policy) {
+            case PAUSE_READ -> ReadGate.suspend(channel, ReadGate.WRITE_BUFFER);
+            case DISCONNECT -> {
+                if (channel.attr(DEADLINE).get() == null) {
+                    channel.attr(DEADLINE).set(channel.eventLoop().schedule(() -> {
+                        channel.attr(DEADLINE).set(null);
+                        if (!channel.isWritable()) {
+                            disconnected.increment();
+                            log.warn("[WriteBackpressure] channel {} unwritable for {} ms, queued bytes: {}, disconnecting",
+                                    channel.remoteAddress(), disconnectTimeoutMillis, queuedBytes(channel));
+                            channel.close();
+                        }
+                    }, disconnectTimeoutMillis, TimeUnit.MILLISECONDS));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void onWritable(Channel channel) {
+        switch (policy) {
+            case PAUSE_READ -> ReadGate.resume(channel, ReadGate.WRITE_BUFFER);
+            case DISCONNECT -> cancelDeadline(channel);
+            default -> {
+            }
+        }
+    }
+
+    private void cancelDeadline(Channel channel) {
+        ScheduledFuture<?> deadline = channel.attr(DEADLINE).getAndSet(null);
+        if (deadline != null) {
+            deadline.cancel(false);
+        }
+    }
+}
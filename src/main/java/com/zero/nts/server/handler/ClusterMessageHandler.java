@@ -0,0 +1,35 @@
+package com.zero.nts.server.handler;
+
+import com.zero.nts.cluster.ClusterNode;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import io.netty.channel.ChannelHandlerContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link MessageType#CLUSTER} 集群节点间报文处理器，单向报文，不回应
+ * <p>
+ * 仅在开启集群模式时注册，未注册时客户端发来的 CLUSTER 报文按未知类型忽略；
+ * 报文来源的校验见 {@link ClusterNode#receive(io.netty.channel.Channel, EasyMessage)}。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/22 14:10 </p>
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "netty.cluster", name = "enabled", havingValue = "true")
+public class ClusterMessageHandler implements EasyMessageHandler {
+    private final ClusterNode clusterNode;
+
+    @Override
+    public byte type() {
+        return MessageType.CLUSTER.getValue();
+    }
+
+    @Override
+    public void handle(ChannelHandlerContext ctx, EasyMessage message) throws Exception {
+        clusterNode.receive(ctx.channel(), message);
+    }
+}
@@ -0,0 +1,40 @@
+package com.zero.nts.server.handler;
+
+import com.zero.nts.message.EasyContent;
+import com.zero.nts.message.EasyMessage;
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * 按消息类型注册的业务处理器
+ * <p>
+ * 声明为 Spring Bean 即可自动注册到 {@link MessageHandlerRegistry}，也可以在运行时调用
+ * {@link MessageHandlerRegistry#register(byte, EasyMessageHandler)} 注册。
+ * 处理器返回后消息会被自动释放，需要异步使用时先调用 {@link EasyMessage#retain()}。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/16 09:40 </p>
+ */
+public interface EasyMessageHandler {
+
+    /**
+     * 处理的消息类型码，可以是 {@link com.zero.nts.message.MessageType} 之外的自定义类型码
+     */
+    byte type();
+
+    /**
+     * 处理消息
+     * @param ctx       业务处理器上下文，响应通过 {@link ResponseWriter} 写出
+     * @param message   消息
+     */
+    void handle(ChannelHandlerContext ctx, EasyMessage message) throws Exception;
+
+    /**
+     * 处理流式报文的数据体分片，{@link EasyMessage#isChunked()} 的报文头交给 {@link #handle} 之后，
+     * 同一连接上随后的分片按顺序交给本方法，方法返回后分片被自动释放。
+     * 默认丢弃分片，需要接收大报文的处理器可以在此落盘或转发
+     * @param ctx       业务处理器上下文
+     * @param content   数据体分片
+     */
+    default void content(ChannelHandlerContext ctx, EasyContent content) throws Exception {
+    }
+}
@@ -1,19 +1,18 @@
 package com.zero.nts.server.handler;
 
+import com.zero.nts.message.EasyContent;
 import com.zero.nts.message.EasyMessage;
-import com.zero.nts.message.MessageType;
-import com.zero.nts.message.MessageVersion;
+import com.zero.nts.server.broadcast.BroadcastEngine;
+import com.zero.nts.server.dispatch.DispatchStage;
+import com.zero.nts.server.session.SessionRegistry;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.group.DefaultChannelGroup;
 import io.netty.handler.timeout.IdleStateEvent;
-import io.netty.util.concurrent.GlobalEventExecutor;
+import io.netty.util.AttributeKey;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-
 /**
  * 服务端处理器
  *
@@ -24,45 +23,82 @@ import java.nio.charset.StandardCharsets;
 @Component
 @ChannelHandler.Sharable
 public class EasyServerHandler extends SimpleChannelInboundHandler<EasyMessage> {
-    private final DefaultChannelGroup GROUP = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    /** 当前流式报文对应的处理器 */
+    private static final AttributeKey<EasyMessageHandler> STREAM_HANDLER = AttributeKey.valueOf("nts.streamHandler");
+    private final ResponseWriter responseWriter;
+    private final MessageHandlerRegistry registry;
+    private final DispatchStage dispatchStage;
+    private final BroadcastEngine broadcastEngine;
+    private final SessionRegistry sessionRegistry;
+
+    public EasyServerHandler(ResponseWriter responseWriter, MessageHandlerRegistry registry, DispatchStage dispatchStage,
+                             BroadcastEngine broadcastEngine, SessionRegistry sessionRegistry) {
+        this.responseWriter = responseWriter;
+        this.registry = registry;
+        this.dispatchStage = dispatchStage;
+        this.broadcastEngine = broadcastEngine;
+        this.sessionRegistry = sessionRegistry;
+    }
 
     /**
-     * 接收到客户端消息处理
+     * 接收到客户端消息处理，按类型码分发给注册的 {@link EasyMessageHandler}，
+     * 方法返回后消息（及其引用计数的数据体）由父类自动释放，
+     * 如需在方法外继续持有消息，必须先调用 {@link EasyMessage#retain()}
      * @param ctx       客户端上下文
      * @param message   数据消息
      */
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, EasyMessage message) throws Exception {
-        MessageType type = message.getType();
-        switch (type){
-            case NORMAL -> {
-                String payload = new String(message.getData(), StandardCharsets.UTF_8);
-                log.info("[{}]: {}", ctx.channel().remoteAddress(), payload);
+        if (message.isChunked()) {
+            // 流式报文，记录处理器，随后的分片交给同一处理器
+            ctx.channel().attr(STREAM_HANDLER).set(registry.get(message.getTypeCode()));
+        }
+        if (!registry.dispatch(ctx, message)) {
+            log.warn("[ServerHandler] no handler for message type {}, channel: {}", message.getTypeCode(), ctx.channel().remoteAddress());
+        }
+    }
+
+    /**
+     * 流式报文的数据体分片，交给报文头对应的处理器，返回后释放
+     * @param ctx       客户端上下文
+     * @param content   数据体分片
+     */
+    private void content(ChannelHandlerContext ctx, EasyContent content) throws Exception {
+        try {
+            EasyMessageHandler handler = ctx.channel().attr(STREAM_HANDLER).get();
+            if (content.isLast()) {
+                ctx.channel().attr(STREAM_HANDLER).set(null);
             }
-            case HEART_BEAT -> {
-                log.info("[HEARTBEAT] {}", ctx.channel().remoteAddress());
-                return;
+            if (handler != null) {
+                handler.content(ctx, content);
             }
+        } finally {
+            content.release();
         }
-
-        // 响应消息
-        EasyMessage respMsg = new EasyMessage();
-        respMsg.setMagic('@');
-        respMsg.setVersion(MessageVersion.V1);
-        respMsg.setType(MessageType.NORMAL);
-        byte[] bytes = "Response".getBytes(StandardCharsets.UTF_8);
-        respMsg.setLength(bytes.length);
-        respMsg.setData(bytes);
-        ctx.channel().writeAndFlush(respMsg).addListener(future -> {
-           if (future.isSuccess()) {
-               log.info("Reply successfully");
-           }
-        });
     }
 
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
-        super.channelRead(ctx, msg);
+        try {
+            if (msg instanceof EasyContent content) {
+                content(ctx, content);
+            } else {
+                super.channelRead(ctx, msg);
+            }
+        } finally {
+            // 通知分发阶段消息已处理完，用于计算排队深度
+            dispatchStage.completed(ctx.channel());
+        }
+    }
+
+    /**
+     * 一次读取完成，统一 flush 本次读取产生的响应
+     * @param ctx   上下文
+     */
+    @Override
+    public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
+        responseWriter.readComplete(ctx);
+        super.channelReadComplete(ctx);
     }
 
     /**
@@ -90,8 +126,9 @@ public class EasyServerHandler extends SimpleChannelInboundHandler<EasyMessage>
     public void channelActive(ChannelHandlerContext ctx) throws Exception {
         ctx.channel().id();
         log.info("[ServerHandler] client connected: {}", ctx.channel().id().asLongText());
-        GROUP.add(ctx.channel());
-        log.info("current number of clients: {}", GROUP.size());
+        // 加入广播范围，连接关闭时自动移除
+        broadcastEngine.register(ctx.channel());
+        log.info("current number of clients: {}", broadcastEngine.size());
         super.channelActive(ctx);
     }
 
@@ -102,8 +139,9 @@ public class EasyServerHandler extends SimpleChannelInboundHandler<EasyMessage>
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         log.info("[ServerHandler] client disconnected: {}", ctx.channel().remoteAddress());
-        GROUP.remove(ctx.channel());
-        log.info("current number of clients: {}", GROUP.size());
+        // 解除会话绑定
+        sessionRegistry.unbind(ctx.channel());
+        log.info("current number of clients: {}", broadcastEngine.size());
         super.channelInactive(ctx);
     }
 
@@ -0,0 +1,15 @@
+package com.zero.nts.server.handler;
+
+/**
+ * 响应刷新模式
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/5 14:20 </p>
+ */
+public enum FlushMode {
+    /// 每条响应立即 writeAndFlush
+    IMMEDIATE,
+    /// 读取期间只 write，在 channelReadComplete 或达到条数/字节阈值时统一 flush
+    BATCH,
+    ;
+}
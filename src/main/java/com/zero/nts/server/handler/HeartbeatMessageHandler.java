@@ -0,0 +1,38 @@
+package com.zero.nts.server.handler;
+
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import io.netty.channel.ChannelHandlerContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link MessageType#HEART_BEAT} 心跳处理器
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/16 10:12 </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HeartbeatMessageHandler implements EasyMessageHandler {
+    private final ResponseWriter responseWriter;
+
+    @Override
+    public byte type() {
+        return MessageType.HEART_BEAT.getValue();
+    }
+
+    @Override
+    public void handle(ChannelHandlerContext ctx, EasyMessage message) throws Exception {
+        log.debug("[HEARTBEAT] {}", ctx.channel().remoteAddress());
+        if (message.getId() == EasyMessage.PROBE_ID) {
+            // 客户端对服务端探测的回应，无需再回应
+            return;
+        }
+        // 原样回应心跳（相同ID），客户端可据此检查连接健康状态
+        EasyMessage pong = EasyMessage.newInstance(message.getVersion(), MessageType.HEART_BEAT, message.getId(), System.currentTimeMillis(), null);
+        responseWriter.write(ctx, pong);
+    }
+}
@@ -0,0 +1,45 @@
+package com.zero.nts.server.handler;
+
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.server.session.SessionRegistry;
+import io.netty.channel.ChannelHandlerContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link MessageType#LOGIN} 登录处理器，数据体为 UTF-8 编码的会话ID
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/21 16:02 </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LoginMessageHandler implements EasyMessageHandler {
+    private final ResponseWriter responseWriter;
+    private final SessionRegistry sessionRegistry;
+
+    @Override
+    public byte type() {
+        return MessageType.LOGIN.getValue();
+    }
+
+    @Override
+    public void handle(ChannelHandlerContext ctx, EasyMessage message) throws Exception {
+        String sessionId = message.getDataAsString(StandardCharsets.UTF_8);
+        if (sessionId.isBlank()) {
+            log.warn("[LOGIN] empty session id, channel: {}", ctx.channel().remoteAddress());
+            ctx.close();
+            return;
+        }
+        sessionRegistry.bind(sessionId, ctx.channel());
+        log.debug("[LOGIN] session {} bound to {}", sessionId, ctx.channel().remoteAddress());
+        // 以相同ID回应空数据体，客户端据此确认登录完成
+        responseWriter.write(ctx, EasyMessage.newInstance(message.getVersion(), MessageType.LOGIN, message.getId(),
+                System.currentTimeMillis(), null));
+    }
+}
@@ -0,0 +1,79 @@
+package com.zero.nts.server.handler;
+
+import com.zero.nts.message.EasyMessage;
+import io.netty.channel.ChannelHandlerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 消息类型分发表
+ * <p>
+ * 以类型码（0~255）为下标的数组保存处理器，分发只需一次数组访问，新增消息类型不会增加每条消息的开销。
+ * 注册时复制整个数组（写时复制），分发路径无锁。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/16 09:52 </p>
+ */
+@Slf4j
+@Component
+public class MessageHandlerRegistry {
+    private volatile EasyMessageHandler[] handlers = new EasyMessageHandler[256];
+
+    public MessageHandlerRegistry(List<EasyMessageHandler> handlers) {
+        for (EasyMessageHandler handler : handlers) {
+            register(handler.type(), handler);
+        }
+    }
+
+    /**
+     * 注册处理器
+     * @param type      类型码
+     * @param handler   处理器
+     * @throws IllegalStateException 该类型码已注册处理器
+     */
+    public synchronized void register(byte type, EasyMessageHandler handler) {
+        EasyMessageHandler[] copy = handlers.clone();
+        if (copy[type & 0xFF] != null) {
+            throw new IllegalStateException("Handler for message type " + type + " already registered: " + copy[type & 0xFF]);
+        }
+        copy[type & 0xFF] = handler;
+        handlers = copy;
+        log.info("[MessageHandlerRegistry] registered handler for type {}: {}", type, handler.getClass().getSimpleName());
+    }
+
+    /**
+     * 注销处理器
+     * @param type 类型码
+     */
+    public synchronized void unregister(byte type) {
+        EasyMessageHandler[] copy = handlers.clone();
+        copy[type & 0xFF] = null;
+        handlers = copy;
+    }
+
+    /**
+     * 分发消息
+     * @param ctx       上下文
+     * @param message   消息
+     * @return 是否找到对应的处理器
+     */
+    public boolean dispatch(ChannelHandlerContext ctx, EasyMessage message) throws Exception {
+        EasyMessageHandler handler = handlers[message.getTypeCode() & 0xFF];
+        if (handler == null) {
+            return false;
+        }
+        handler.handle(ctx, message);
+        return true;
+    }
+
+    /**
+     * 获取类型码对应的处理器
+     * @param type 类型码
+     * @return 处理器，未注册时返回 null
+     */
+    public EasyMessageHandler get(byte type) {
+        return handlers[type & 0xFF];
+    }
+}
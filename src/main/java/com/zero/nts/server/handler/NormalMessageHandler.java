@@ -0,0 +1,68 @@
+package com.zero.nts.server.handler;
+
+import com.zero.nts.message.EasyContent;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link MessageType#NORMAL} 数据包处理器
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/16 10:05 </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NormalMessageHandler implements EasyMessageHandler {
+    /**
+     * 固定响应内容，启动时编码一次，所有连接共享（只读、不可释放，每次写出共享其副本）
+     */
+    private static final ByteBuf RESPONSE = Unpooled.unreleasableBuffer(
+            Unpooled.directBuffer().writeBytes("Response".getBytes(StandardCharsets.UTF_8)).asReadOnly());
+    private final ResponseWriter responseWriter;
+
+    @Override
+    public byte type() {
+        return MessageType.NORMAL.getValue();
+    }
+
+    @Override
+    public void handle(ChannelHandlerContext ctx, EasyMessage message) throws Exception {
+        if (message.isChunked()) {
+            // 大报文的数据体随后以分片到达，接收完毕再响应
+            log.debug("[{}]: streaming body of {} bytes", ctx.channel().remoteAddress(), message.getLength());
+            return;
+        }
+        // 报文内容由 WireLogger 采样记录，这里只在 debug 开启时才解码数据体
+        if (log.isDebugEnabled()) {
+            log.debug("[{}]: {}", ctx.channel().remoteAddress(), message.getDataAsString(StandardCharsets.UTF_8));
+        }
+        respond(ctx, message.getVersion(), message.getId());
+    }
+
+    @Override
+    public void content(ChannelHandlerContext ctx, EasyContent content) throws Exception {
+        log.debug("[{}]: received chunk {}", ctx.channel().remoteAddress(), content);
+        if (content.isLast()) {
+            respond(ctx, content.getVersion(), content.getId());
+        }
+    }
+
+    private void respond(ChannelHandlerContext ctx, MessageVersion version, long id) {
+        // 响应消息取自对象池，编码后随释放归还；
+        // 以请求的协议版本回应，V2 客户端可获得压缩的响应；回传请求ID，客户端据此关联请求与响应
+        EasyMessage respMsg = EasyMessage.newInstance(version, MessageType.NORMAL, id, System.currentTimeMillis(),
+                RESPONSE.retainedDuplicate());
+        // 写失败会通过 exceptionCaught 传播，无需为每次写入添加监听器
+        responseWriter.write(ctx, respMsg);
+    }
+}
@@ -0,0 +1,80 @@
+package com.zero.nts.server.handler;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.AttributeKey;
+import org.springframework.stereotype.Component;
+
+/**
+ * 响应写出器，负责合并同一次读取中产生的多条响应，减少 flush（系统调用）次数
+ * <p>
+ * 统计信息保存在 Channel 属性中，因此可被 {@link io.netty.channel.ChannelHandler.Sharable} 处理器共用；
+ * 同一 Channel 的读写回调总在同一线程执行，计数无需同步。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/5 14:26 </p>
+ */
+@Component
+public class ResponseWriter {
+    private static final AttributeKey<Pending> PENDING = AttributeKey.valueOf("nts.pendingWrites");
+
+    private final FlushMode mode;
+    private final int maxPendingMessages;
+    private final long maxPendingBytes;
+
+    public ResponseWriter(NettyProperties properties) {
+        NettyProperties.Flush flush = properties.getFlush();
+        this.mode = flush.getMode();
+        this.maxPendingMessages = flush.getMaxPendingMessages();
+        this.maxPendingBytes = flush.getMaxPendingBytes();
+    }
+
+    /**
+     * 写出响应，BATCH 模式下仅在达到阈值时 flush
+     * @param ctx       当前处理器上下文，从当前位置向前传播，避免从 pipeline 尾部重新经过所有处理器
+     * @param message   响应消息
+     */
+    public void write(ChannelHandlerContext ctx, EasyMessage message) {
+        if (mode == FlushMode.IMMEDIATE) {
+            ctx.writeAndFlush(message, ctx.voidPromise());
+            return;
+        }
+        Pending pending = ctx.channel().attr(PENDING).get();
+        if (pending == null) {
+            pending = new Pending();
+            ctx.channel().attr(PENDING).set(pending);
+        }
+        ctx.write(message, ctx.voidPromise());
+        pending.messages++;
+        pending.bytes += EasyMessage.MESSAGE_FIXED_SIZE + message.getLength();
+        if (pending.messages >= maxPendingMessages || pending.bytes >= maxPendingBytes) {
+            flush(ctx, pending);
+        }
+    }
+
+    /**
+     * 一次读取完成，flush 剩余的响应
+     * @param ctx   上下文
+     */
+    public void readComplete(ChannelHandlerContext ctx) {
+        if (mode == FlushMode.IMMEDIATE) {
+            return;
+        }
+        Pending pending = ctx.channel().attr(PENDING).get();
+        if (pending != null && pending.messages > 0) {
+            flush(ctx, pending);
+        }
+    }
+
+    private void flush(ChannelHandlerContext ctx, Pending pending) {
+        pending.messages = 0;
+        pending.bytes = 0;
+        ctx.flush();
+    }
+
+    private static final class Pending {
+        int messages;
+        long bytes;
+    }
+}
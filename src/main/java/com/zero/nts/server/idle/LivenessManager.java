@@ -0,0 +1,174 @@
+package com.zero.nts.server.idle;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.AttributeKey;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 共享的连接存活管理器，替代每个连接一个 {@link io.netty.handler.timeout.IdleStateHandler}
+ * <p>
+ * 连接按哈希分散到若干个桶中，由一个 {@link HashedWheelTimer} 每个 tick 批量检查一个桶，
+ * 每个连接每隔 check-interval 被检查一次，EventLoop 上不再有逐连接的定时任务。
+ * 读取时只更新一个粗粒度时钟的时间戳：
+ *  - 空闲超过 heartbeat-interval：服务端主动发送 {@link MessageType#HEART_BEAT} 探测（ID 为 {@link EasyMessage#PROBE_ID}）；
+ *  - 空闲超过 read-timeout：向 pipeline 发送 {@link IdleStateEvent#READER_IDLE_STATE_EVENT}，由业务处理器关闭连接。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/13 14:05 </p>
+ */
+@Slf4j
+@Component
+public class LivenessManager implements TimerTask {
+    private static final AttributeKey<Liveness> LIVENESS = AttributeKey.valueOf("nts.liveness");
+
+    private final long readTimeoutNanos;
+    private final long heartbeatIntervalNanos;
+    private final long tickNanos;
+    private final List<Set<Liveness>> buckets;
+    private final HashedWheelTimer timer;
+    private final ChannelHandler handler = new LivenessHandler();
+    /** 粗粒度时钟，每个 tick 更新一次，避免每次读取都调用 System.nanoTime() */
+    private volatile long clock = System.nanoTime();
+    private int cursor;
+    private volatile boolean stopped;
+
+    public LivenessManager(NettyProperties properties) {
+        NettyProperties.Idle idle = properties.getIdle();
+        this.readTimeoutNanos = idle.getReadTimeout().toNanos();
+        this.heartbeatIntervalNanos = idle.getHeartbeatInterval().toNanos();
+        int bucketCount = Math.max(1, idle.getBuckets());
+        this.buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(ConcurrentHashMap.newKeySet());
+        }
+        this.tickNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), idle.getCheckInterval().toNanos() / bucketCount);
+        this.timer = new HashedWheelTimer(new DefaultThreadFactory("nts-liveness", true), tickNanos, TimeUnit.NANOSECONDS);
+        this.timer.newTimeout(this, tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 放在 pipeline 头部的存活检测处理器，任意入站数据都视为存活
+     */
+    public ChannelHandler handler() {
+        return handler;
+    }
+
+    /**
+     * 当前管理的连接数
+     */
+    public int size() {
+        int size = 0;
+        for (Set<Liveness> bucket : buckets) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    @Override
+    public void run(Timeout timeout) {
+        long now = System.nanoTime();
+        clock = now;
+        try {
+            sweep(buckets.get(cursor), now);
+        } catch (Throwable e) {
+            log.error("[LivenessManager] sweep failed", e);
+        }
+        cursor = (cursor + 1) % buckets.size();
+        if (!stopped) {
+            timer.newTimeout(this, tickNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sweep(Set<Liveness> bucket, long now) {
+        for (Liveness liveness : bucket) {
+            long idle = now - liveness.lastRead;
+            Channel channel = liveness.channel;
+            if (idle >= readTimeoutNanos) {
+                bucket.remove(liveness);
+                log.info("[LivenessManager] channel: {} read timeout", channel.remoteAddress());
+                channel.eventLoop().execute(() -> channel.pipeline().fireUserEventTriggered(IdleStateEvent.READER_IDLE_STATE_EVENT));
+            } else if (heartbeatIntervalNanos > 0 && idle >= heartbeatIntervalNanos && !liveness.probed) {
+                liveness.probed = true;
+                channel.writeAndFlush(EasyMessage.newInstance(MessageVersion.V1, MessageType.HEART_BEAT, EasyMessage.PROBE_ID,
+                        System.currentTimeMillis(), null), channel.voidPromise());
+            }
+        }
+    }
+
+    private void register(Channel channel) {
+        Liveness liveness = new Liveness(channel, clock);
+        channel.attr(LIVENESS).set(liveness);
+        buckets.get((channel.hashCode() & Integer.MAX_VALUE) % buckets.size()).add(liveness);
+    }
+
+    private void unregister(Channel channel) {
+        Liveness liveness = channel.attr(LIVENESS).getAndSet(null);
+        if (liveness != null) {
+            buckets.get((channel.hashCode() & Integer.MAX_VALUE) % buckets.size()).remove(liveness);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopped = true;
+        timer.stop();
+    }
+
+    private static final class Liveness {
+        final Channel channel;
+        volatile long lastRead;
+        volatile boolean probed;
+
+        Liveness(Channel channel, long lastRead) {
+            this.channel = channel;
+            this.lastRead = lastRead;
+        }
+    }
+
+    @ChannelHandler.Sharable
+    private class LivenessHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            register(ctx.channel());
+            super.channelActive(ctx);
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            Liveness liveness = ctx.channel().attr(LIVENESS).get();
+            if (liveness != null) {
+                liveness.lastRead = clock;
+                if (liveness.probed) {
+                    liveness.probed = false;
+                }
+            }
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            unregister(ctx.channel());
+            super.channelInactive(ctx);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.zero.nts.server.logging;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.internal.PlatformDependent;
+import io.netty.util.internal.logging.InternalLogLevel;
+import io.netty.util.internal.logging.InternalLogger;
+import io.netty.util.internal.logging.InternalLoggerFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 报文日志（wire log）
+ * <p>
+ * 以 {@link NettyProperties#getLevel()} 级别输出到名为 {@value #LOGGER_NAME} 的日志器，日志器未开启该级别时
+ * 热路径上只有一次级别判断，不会把数据体解码为字符串。开启后：
+ *  - 按 {@link NettyProperties.WireLog#getSamplesPerSecond()} 每秒限额采样，超出部分只计数，由日志线程空闲时汇总输出；
+ *  - 记录放入有界的 MPSC 环形队列，由单独的 nts-wire-log 线程写日志，I/O 线程不等待日志输出，队列满时丢弃记录。
+ * 日志线程在第一条记录入队时才启动，报文日志未开启时不占用线程（运行时调整日志级别后同样生效）。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/23 15:40 </p>
+ */
+@Slf4j
+@Component
+public class WireLogger {
+    public static final String LOGGER_NAME = "nts.wire";
+    private static final InternalLogger WIRE = InternalLoggerFactory.getInstance(LOGGER_NAME);
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final InternalLogLevel level;
+    private final int samplesPerSecond;
+    private final int maxPayloadBytes;
+    private final Queue<Record> queue;
+    private final Thread writer;
+    private final WireLogHandler handler = new WireLogHandler();
+    private volatile boolean running = true;
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /** 当前采样窗口的起始时间与已采样数 */
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong windowCount = new AtomicLong();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public WireLogger(NettyProperties properties) {
+        NettyProperties.WireLog wireLog = properties.getWireLog();
+        this.level = properties.getLevel().toInternalLevel();
+        this.samplesPerSecond = wireLog.getSamplesPerSecond();
+        this.maxPayloadBytes = wireLog.getMaxPayloadBytes();
+        this.queue = PlatformDependent.newFixedMpscQueue(wireLog.getBufferSize());
+        this.writer = new Thread(this::drain, "nts-wire-log");
+        this.writer.setDaemon(true);
+        log.info("[WireLogger] wire log level: {}, enabled: {}", level, isEnabled());
+    }
+
+    /**
+     * 放在编码器之后的报文日志处理器，记录解码后的入站消息与编码前的出站消息
+     */
+    public ChannelHandler handler() {
+        return handler;
+    }
+
+    /**
+     * 报文日志是否开启（{@value #LOGGER_NAME} 日志器开启了配置的级别）
+     */
+    public boolean isEnabled() {
+        return WIRE.isEnabled(level);
+    }
+
+    /**
+     * 记录一条报文，未开启或未被采样时直接返回
+     * @param direction 方向：IN / OUT
+     * @param remote    对端地址
+     * @param message   消息
+     */
+    public void log(String direction, SocketAddress remote, EasyMessage message) {
+        if (!WIRE.isEnabled(level) || !sample()) {
+            return;
+        }
+        Record record = new Record(direction, remote, message.getTypeCode(), message.getId(), message.getLength(), preview(message));
+        if (!queue.offer(record)) {
+            overflowed.increment();
+        } else if (!started.get() && started.compareAndSet(false, true)) {
+            writer.start();
+        }
+    }
+
+    /**
+     * 每秒限额采样，窗口切换时由切换成功的线程负责重置计数
+     */
+    private boolean sample() {
+        if (samplesPerSecond <= 0) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            windowCount.set(0);
+        }
+        if (windowCount.incrementAndGet() <= samplesPerSecond) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    /**
+     * 只解码数据体的前 maxPayloadBytes 字节
+     */
+    private String preview(EasyMessage message) {
+        if (maxPayloadBytes <= 0 || message.isChunked()) {
+            return null;
+        }
+        ByteBuf payload = message.getPayload();
+        if (payload != null) {
+            return payload.toString(payload.readerIndex(), Math.min(payload.readableBytes(), maxPayloadBytes), StandardCharsets.UTF_8);
+        }
+        byte[] data = message.getData();
+        return data == null ? null : new String(data, 0, Math.min(data.length, maxPayloadBytes), StandardCharsets.UTF_8);
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            Record record = queue.poll();
+            if (record == null) {
+                reportDropped();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+                continue;
+            }
+            WIRE.log(level, "[WireLog] {} {} type={} id={} length={} payload={}",
+                    record.direction, record.remote, record.type, record.id, record.length, record.payload);
+        }
+    }
+
+    private void reportDropped() {
+        long sampledOut = suppressed.sumThenReset();
+        long overflow = overflowed.sumThenReset();
+        if (sampledOut > 0 || overflow > 0) {
+            WIRE.log(level, "[WireLog] {} records suppressed by sampling, {} dropped by full buffer", sampledOut, overflow);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (started.get()) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        }
+    }
+
+    private record Record(String direction, SocketAddress remote, byte type, long id, int length, String payload) {
+    }
+
+    @ChannelHandler.Sharable
+    private class WireLogHandler extends ChannelDuplexHandler {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (msg instanceof EasyMessage message) {
+                log("IN", ctx.channel().remoteAddress(), message);
+            }
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (msg instanceof EasyMessage message) {
+                log("OUT", ctx.channel().remoteAddress(), message);
+            }
+            ctx.write(msg, promise);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.zero.nts.server.metrics;
+
+import java.util.Arrays;
+
+/**
+ * long -> long 开放寻址哈希表（线性探测），键值均为基本类型，读写不产生装箱对象
+ * <p>
+ * 非线程安全，供单个 Channel 在其 EventLoop 中使用。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/23 14:05 </p>
+ */
+final class LongLongMap {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int mask;
+    private int size;
+
+    LongLongMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 插入键值，键已存在时不覆盖
+     * @return 是否插入了新的键
+     */
+    boolean putIfAbsent(long key, long value) {
+        int index = indexOf(key);
+        if (used[index]) {
+            return false;
+        }
+        keys[index] = key;
+        values[index] = value;
+        used[index] = true;
+        // 装载因子不超过 1/2，保证探测链足够短
+        if (++size > (mask + 1) >> 1) {
+            rehash((mask + 1) << 1, Long.MIN_VALUE, false);
+        }
+        return true;
+    }
+
+    /**
+     * 移除键
+     * @param missing 键不存在时的返回值
+     * @return 键对应的值
+     */
+    long remove(long key, long missing) {
+        int index = indexOf(key);
+        if (!used[index]) {
+            return missing;
+        }
+        long value = values[index];
+        used[index] = false;
+        size--;
+        // 回移后续探测链上的元素，填补空位，无需墓碑标记
+        int gap = index;
+        for (int i = (index + 1) & mask; used[i]; i = (i + 1) & mask) {
+            int home = hash(keys[i]);
+            // home 不在 (gap, i] 区间内时，元素可以回移到 gap
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                used[gap] = true;
+                used[i] = false;
+                gap = i;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 移除值早于 deadline 的元素（值为 {@link System#nanoTime()}，按差值比较以兼容溢出）
+     * @return 移除的元素数
+     */
+    int removeOlderThan(long deadline) {
+        int before = size;
+        rehash(mask + 1, deadline, true);
+        return before - size;
+    }
+
+    void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int indexOf(long key) {
+        int index = hash(key);
+        while (used[index] && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private void rehash(int capacity, long deadline, boolean expire) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i] && (!expire || oldValues[i] - deadline >= 0)) {
+                int index = indexOf(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                used[index] = true;
+                size++;
+            }
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.zero.nts.server.metrics;
+
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.server.broadcast.BroadcastEngine;
+import com.zero.nts.server.flow.AdmissionControl;
+import com.zero.nts.server.flow.RateLimiter;
+import com.zero.nts.server.flow.WriteBackpressure;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.buffer.PoolArenaMetric;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.EventLoopGroup;
+import io.netty.handler.codec.DecoderException;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.ScheduledFuture;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 服务端指标，通过 Spring Boot Actuator 的 /actuator/metrics 暴露
+ * <p>
+ *  - 连接：nts.connections.accepted、nts.connections.active、nts.connections.rejected（按 reason 标签区分）；
+ *  - 流量：nts.bytes.read、nts.bytes.written、nts.frames.decoded、nts.frames.encoded；
+ *  - 错误：nts.decode.errors（按 cause 标签区分）；
+ *  - 延迟：nts.handler.latency，从解码出请求到同 ID 响应写出完成；
+ *  - 写缓冲区：nts.write.queued.bytes（所有连接合计）、nts.write.queued.bytes.max（单个连接最大值）；
+ *  - 资源：nts.eventloop.pending.tasks、nts.eventloop.queue.depth、nts.eventloop.latency、nts.allocator.*，以及广播、写缓冲区背压、限流的计数。
+ * <p>
+ * 计数只做 {@link Counter#increment()}，不在热路径上查找或创建 Meter。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/23 10:20 </p>
+ */
+@Component
+public class ServerMetrics {
+    /** 单个连接同时追踪的在途请求上限，防止不回应的消息类型无限占用内存 */
+    private static final int MAX_TRACKED_REQUESTS = 4096;
+    /** 请求超过该时长仍未回应则不再计入在途请求 */
+    private static final long REQUEST_EXPIRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    private final MeterRegistry registry;
+    private final Counter accepted;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter bytesRead;
+    private final Counter bytesWritten;
+    private final Counter framesDecoded;
+    private final Counter framesEncoded;
+    private final Timer handlerLatency;
+    private final TrafficHandler trafficHandler = new TrafficHandler();
+
+    public ServerMetrics(MeterRegistry registry, BroadcastEngine broadcastEngine, WriteBackpressure writeBackpressure,
+                         RateLimiter rateLimiter, AdmissionControl admissionControl) {
+        this.registry = registry;
+        this.accepted = Counter.builder("nts.connections.accepted").description("Accepted connections").register(registry);
+        Gauge.builder("nts.connections.active", active, AtomicInteger::get).description("Active connections").register(registry);
+        Gauge.builder("nts.requests.in.flight", inFlight, AtomicInteger::get).description("Requests decoded but not yet answered").register(registry);
+        this.bytesRead = Counter.builder("nts.bytes.read").baseUnit("bytes").register(registry);
+        this.bytesWritten = Counter.builder("nts.bytes.written").baseUnit("bytes").register(registry);
+        this.framesDecoded = Counter.builder("nts.frames.decoded").register(registry);
+        this.framesEncoded = Counter.builder("nts.frames.encoded").register(registry);
+        this.handlerLatency = Timer.builder("nts.handler.latency")
+                .description("Time from request decoded to response write completed")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        FunctionCounter.builder("nts.broadcast.delivered", broadcastEngine, BroadcastEngine::delivered).register(registry);
+        FunctionCounter.builder("nts.broadcast.dropped", broadcastEngine, BroadcastEngine::dropped).register(registry);
+        FunctionCounter.builder("nts.write.unwritable", writeBackpressure, WriteBackpressure::unwritableCount).register(registry);
+        FunctionCounter.builder("nts.write.dropped", writeBackpressure, WriteBackpressure::droppedCount).register(registry);
+        FunctionCounter.builder("nts.write.disconnected", writeBackpressure, WriteBackpressure::disconnectedCount).register(registry);
+        Gauge.builder("nts.write.queued.bytes", broadcastEngine, engine -> queuedBytes(engine, false))
+                .description("Bytes queued in all channels' write buffers")
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("nts.write.queued.bytes.max", broadcastEngine, engine -> queuedBytes(engine, true))
+                .description("Largest write buffer among all channels")
+                .baseUnit("bytes").register(registry);
+        FunctionCounter.builder("nts.ratelimit.throttled", rateLimiter, RateLimiter::throttledCount).register(registry);
+        FunctionCounter.builder("nts.connections.rejected", admissionControl, AdmissionControl::rejectedByTotal)
+                .tag("reason", "max-connections").register(registry);
+        FunctionCounter.builder("nts.connections.rejected", admissionControl, AdmissionControl::rejectedByIp)
+                .tag("reason", "max-connections-per-ip").register(registry);
+        FunctionCounter.builder("nts.connections.rejected", admissionControl, AdmissionControl::rejectedByRate)
+                .tag("reason", "accept-rate").register(registry);
+        bindAllocator(ByteBufAllocator.DEFAULT);
+    }
+
+    /**
+     * 放在 pipeline 头部，统计连接数与读写字节数
+     */
+    public ChannelHandler trafficHandler() {
+        return trafficHandler;
+    }
+
+    /**
+     * 放在编码器之后，统计报文数、解码错误与处理延迟，每个连接一个实例
+     */
+    public ChannelHandler newFrameHandler() {
+        return new FrameHandler();
+    }
+
+    /**
+     * 已解码但尚未写出响应的请求数（不含心跳探测回应），优雅下线时据此等待在途请求完成
+     */
+    public int inFlightRequests() {
+        return inFlight.get();
+    }
+
+    /**
+     * 注册 EventLoop 指标：
+     *  - nts.eventloop.pending.tasks：整个 group 的待执行任务数；
+     *  - nts.eventloop.queue.depth：单个事件循环的待执行任务数，按 loop 标签区分；
+     *  - nts.eventloop.latency：单个事件循环的调度延迟，即定时探测任务从到期到实际执行的时间，
+     *    反映一轮循环中 I/O 处理与任务执行占用的时长。
+     * @param name          EventLoopGroup 名称，作为 group 标签
+     * @param group         EventLoopGroup
+     * @param probeInterval 探测间隔，为 null 或 0 时不采集延迟
+     */
+    public void bindEventLoops(String name, EventLoopGroup group, Duration probeInterval) {
+        Gauge.builder("nts.eventloop.pending.tasks", group, ServerMetrics::pendingTasks)
+                .tag("group", name)
+                .register(registry);
+        int index = 0;
+        for (EventExecutor executor : group) {
+            String loop = String.valueOf(index++);
+            if (executor instanceof SingleThreadEventExecutor single) {
+                Gauge.builder("nts.eventloop.queue.depth", single, SingleThreadEventExecutor::pendingTasks)
+                        .tag("group", name).tag("loop", loop)
+                        .register(registry);
+            }
+            if (probeInterval != null && probeInterval.toNanos() > 0) {
+                Timer latency = Timer.builder("nts.eventloop.latency")
+                        .description("Delay between a scheduled probe becoming due and running on the event loop")
+                        .tag("group", name).tag("loop", loop)
+                        .publishPercentileHistogram()
+                        .register(registry);
+                new LoopProbe(executor, latency, probeInterval.toNanos()).schedule();
+            }
+        }
+    }
+
+    /**
+     * 在读取指标时遍历所有连接的写缓冲区，热路径上没有额外开销
+     * @param max true 返回单个连接的最大值，false 返回总和
+     */
+    private static double queuedBytes(BroadcastEngine engine, boolean max) {
+        long[] result = new long[1];
+        engine.forEachChannel(channel -> {
+            long queued = WriteBackpressure.queuedBytes(channel);
+            result[0] = max ? Math.max(result[0], queued) : result[0] + queued;
+        });
+        return result[0];
+    }
+
+    private static double pendingTasks(EventLoopGroup group) {
+        long pending = 0;
+        for (EventExecutor executor : group) {
+            if (executor instanceof SingleThreadEventExecutor loop) {
+                pending += loop.pendingTasks();
+            }
+        }
+        return pending;
+    }
+
+    private void bindAllocator(ByteBufAllocator alloc) {
+        if (alloc instanceof ByteBufAllocatorMetricProvider provider) {
+            Gauge.builder("nts.allocator.used", provider, p -> p.metric().usedDirectMemory())
+                    .tag("type", "direct").baseUnit("bytes").register(registry);
+            Gauge.builder("nts.allocator.used", provider, p -> p.metric().usedHeapMemory())
+                    .tag("type", "heap").baseUnit("bytes").register(registry);
+        }
+        if (alloc instanceof PooledByteBufAllocator pooled) {
+            bindArenas("direct", pooled, a -> a.metric().directArenas());
+            bindArenas("heap", pooled, a -> a.metric().heapArenas());
+            Gauge.builder("nts.allocator.thread.caches", pooled, a -> a.metric().numThreadLocalCaches()).register(registry);
+        }
+    }
+
+    private void bindArenas(String type, PooledByteBufAllocator pooled, Function<PooledByteBufAllocator, List<PoolArenaMetric>> arenas) {
+        Gauge.builder("nts.allocator.arenas", pooled, a -> arenas.apply(a).size()).tag("type", type).register(registry);
+        ToDoubleFunction<PooledByteBufAllocator> activeAllocations = a -> {
+            long sum = 0;
+            for (PoolArenaMetric arena : arenas.apply(a)) {
+                sum += arena.numActiveAllocations();
+            }
+            return sum;
+        };
+        Gauge.builder("nts.allocator.active.allocations", pooled, activeAllocations).tag("type", type).register(registry);
+    }
+
+    @ChannelHandler.Sharable
+    private class TrafficHandler extends ChannelDuplexHandler {
+        @Override
+        public void channelActive(ChannelHandlerContext ctx) throws Exception {
+            accepted.increment();
+            active.incrementAndGet();
+            super.channelActive(ctx);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            active.decrementAndGet();
+            super.channelInactive(ctx);
+        }
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (msg instanceof ByteBuf buf) {
+                bytesRead.increment(buf.readableBytes());
+            }
+            ctx.fireChannelRead(msg);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (msg instanceof ByteBuf buf) {
+                bytesWritten.increment(buf.readableBytes());
+            }
+            ctx.write(msg, promise);
+        }
+    }
+
+    /**
+     * 以消息ID关联请求与响应，读写都在 Channel 的 EventLoop 中执行，无需同步；
+     * 时间戳存放在基本类型的哈希表中，热路径上不装箱。单向消息类型不追踪，
+     * 其余超过 {@link #REQUEST_EXPIRY_NANOS} 仍未回应的请求视为不会回应，由定时清理移出在途计数。
+     */
+    private class FrameHandler extends ChannelDuplexHandler {
+        private static final long MISSING = Long.MIN_VALUE;
+        private final LongLongMap decodedAt = new LongLongMap();
+        private ScheduledFuture<?> expiry;
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+            if (msg instanceof EasyMessage message) {
+                framesDecoded.increment();
+                if (tracked(message) && decodedAt.size() < MAX_TRACKED_REQUESTS) {
+                    if (decodedAt.putIfAbsent(message.getId(), System.nanoTime())) {
+                        inFlight.incrementAndGet();
+                        scheduleExpiry(ctx);
+                    }
+                }
+            }
+            ctx.fireChannelRead(msg);
+        }
+
+        private boolean tracked(EasyMessage message) {
+            return message.getId() != EasyMessage.PROBE_ID
+                    && message.getType() != MessageType.GO_AWAY && message.getType() != MessageType.CLUSTER;
+        }
+
+        private void scheduleExpiry(ChannelHandlerContext ctx) {
+            if (expiry == null) {
+                expiry = ctx.executor().schedule(() -> expire(ctx), REQUEST_EXPIRY_NANOS, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private void expire(ChannelHandlerContext ctx) {
+            expiry = null;
+            int expired = decodedAt.removeOlderThan(System.nanoTime() - REQUEST_EXPIRY_NANOS);
+            inFlight.addAndGet(-expired);
+            if (decodedAt.size() > 0) {
+                scheduleExpiry(ctx);
+            }
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            if (msg instanceof EasyMessage message) {
+                framesEncoded.increment();
+                long start = decodedAt.remove(message.getId(), MISSING);
+                if (start != MISSING) {
+                    inFlight.decrementAndGet();
+                    if (promise.isVoid()) {
+                        // voidPromise 无法添加监听器，换成普通 promise，写失败时仍按原方式传播异常
+                        promise = ctx.newPromise().addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE);
+                    }
+                    promise.addListener(future -> handlerLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+                }
+            }
+            ctx.write(msg, promise);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+            if (cause instanceof DecoderException) {
+                Throwable root = cause.getCause() != null ? cause.getCause() : cause;
+                registry.counter("nts.decode.errors", "cause", root.getClass().getSimpleName()).increment();
+            }
+            ctx.fireExceptionCaught(cause);
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+            if (expiry != null) {
+                expiry.cancel(false);
+                expiry = null;
+            }
+            inFlight.addAndGet(-decodedAt.size());
+            decodedAt.clear();
+            super.channelInactive(ctx);
+        }
+    }
+
+    /**
+     * 事件循环延迟探测：在事件循环上调度一个定时任务，执行时记录实际执行时间与到期时间之差，随后重新调度。
+     * 空闲的事件循环按最近的定时任务到期时间唤醒，延迟接近 0；忙碌时需等当前一轮 I/O 与任务处理完才能执行。
+     */
+    private static final class LoopProbe implements Runnable {
+        private final EventExecutor executor;
+        private final Timer latency;
+        private final long intervalNanos;
+        private long deadline;
+
+        LoopProbe(EventExecutor executor, Timer latency, long intervalNanos) {
+            this.executor = executor;
+            this.latency = latency;
+            this.intervalNanos = intervalNanos;
+        }
+
+        void schedule() {
+            if (executor.isShuttingDown()) {
+                return;
+            }
+            deadline = System.nanoTime() + intervalNanos;
+            executor.schedule(this, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            latency.record(Math.max(0, System.nanoTime() - deadline), TimeUnit.NANOSECONDS);
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.zero.nts.server.session;
+
+import io.netty.channel.Channel;
+
+/**
+ * 会话变更监听器，在执行绑定/解绑的线程上同步回调，实现不应阻塞
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/22 10:12 </p>
+ */
+public interface SessionListener {
+    /**
+     * 会话绑定到连接
+     * @param sessionId 会话ID
+     * @param channel   连接
+     */
+    void bound(String sessionId, Channel channel);
+
+    /**
+     * 会话解除绑定
+     * @param sessionId 会话ID
+     * @param channel   连接
+     */
+    void unbound(String sessionId, Channel channel);
+}
@@ -0,0 +1,151 @@
+package com.zero.nts.server.session;
+
+import com.zero.nts.message.EasyMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 会话注册表：登录报文携带的会话ID -> 连接
+ * <p>
+ *  - 基于 {@link ConcurrentHashMap}，查找无锁，更新只锁定单个哈希桶，适合百万级会话；
+ *  - 会话ID同时记录在连接属性上，连接断开时无需遍历即可移除；
+ *  - 同一会话ID重复登录时新连接生效，旧连接被关闭（踢下线）；
+ *  - {@link #sendTo(String, EasyMessage)} 直接交给目标连接写出，Netty 会把写操作提交到连接所属的 EventLoop 执行，
+ *    调用方不持有任何锁。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/21 15:40 </p>
+ */
+@Slf4j
+@Component
+public class SessionRegistry {
+    private static final AttributeKey<String> SESSION_ID = AttributeKey.valueOf("nts.sessionId");
+
+    private final Map<String, Channel> sessions = new ConcurrentHashMap<>();
+    private final List<SessionListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 注册会话变更监听器
+     * @param listener 监听器
+     */
+    public void addListener(SessionListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 绑定会话，已存在的同名会话连接会被关闭
+     * @param sessionId 会话ID
+     * @param channel   连接
+     */
+    public void bind(String sessionId, Channel channel) {
+        String previousId = channel.attr(SESSION_ID).getAndSet(sessionId);
+        if (previousId != null && !previousId.equals(sessionId)) {
+            // 同一连接切换会话，移除旧绑定
+            removed(previousId, channel);
+        }
+        Channel previous = sessions.put(sessionId, channel);
+        if (previous != null && previous != channel) {
+            log.info("[SessionRegistry] session {} logged in again from {}, closing {}", sessionId, channel.remoteAddress(), previous.remoteAddress());
+            previous.attr(SESSION_ID).compareAndSet(sessionId, null);
+            previous.close();
+        }
+        for (SessionListener listener : listeners) {
+            listener.bound(sessionId, channel);
+        }
+        // 绑定期间连接已关闭，channelInactive 可能已执行完，这里补偿一次
+        if (!channel.isActive()) {
+            unbind(channel);
+        }
+    }
+
+    /**
+     * 解除连接上的会话绑定，连接断开时调用
+     * @param channel 连接
+     */
+    public void unbind(Channel channel) {
+        String sessionId = channel.attr(SESSION_ID).getAndSet(null);
+        if (sessionId != null) {
+            removed(sessionId, channel);
+        }
+    }
+
+    private void removed(String sessionId, Channel channel) {
+        // 只移除指向本连接的绑定，避免误删重新登录后的新连接
+        if (sessions.remove(sessionId, channel)) {
+            for (SessionListener listener : listeners) {
+                listener.unbound(sessionId, channel);
+            }
+        }
+    }
+
+    /**
+     * 向指定会话发送消息
+     * @param sessionId 会话ID
+     * @param message   消息，所有权转移，发送失败时由本方法释放
+     * @return 会话在线并已提交写出返回 true
+     */
+    public boolean sendTo(String sessionId, EasyMessage message) {
+        Channel channel = sessions.get(sessionId);
+        if (channel == null || !channel.isActive()) {
+            message.release();
+            return false;
+        }
+        channel.writeAndFlush(message, channel.voidPromise());
+        return true;
+    }
+
+    /**
+     * 向指定会话发送已编码的报文（例如其他节点转发而来的报文）
+     * @param sessionId 会话ID
+     * @param frame     报文，所有权转移，发送失败时由本方法释放
+     * @return 会话在线并已提交写出返回 true
+     */
+    public boolean sendTo(String sessionId, ByteBuf frame) {
+        Channel channel = sessions.get(sessionId);
+        if (channel == null || !channel.isActive()) {
+            frame.release();
+            return false;
+        }
+        channel.writeAndFlush(frame, channel.voidPromise());
+        return true;
+    }
+
+    /**
+     * @param sessionId 会话ID
+     * @return 会话对应的连接，不在线返回 null
+     */
+    public Channel channel(String sessionId) {
+        return sessions.get(sessionId);
+    }
+
+    /**
+     * @param channel 连接
+     * @return 连接绑定的会话ID，未登录返回 null
+     */
+    public String sessionId(Channel channel) {
+        return channel.attr(SESSION_ID).get();
+    }
+
+    /**
+     * @return 在线会话ID（实时视图）
+     */
+    public Set<String> sessionIds() {
+        return sessions.keySet();
+    }
+
+    /**
+     * @return 在线会话数
+     */
+    public int size() {
+        return sessions.size();
+    }
+}
@@ -0,0 +1,96 @@
+package com.zero.nts.transport;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import net.openhft.affinity.Affinity;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 事件循环线程工厂
+ * <p>
+ * 线程以 prefix-池编号-序号 命名；指定 CPU 列表时，每个线程启动后按创建顺序轮流绑定到列表中的一个 CPU
+ * （线程数多于 CPU 数时多个线程共享同一个 CPU）。绑核依赖 Linux sched_setaffinity，
+ * 不支持的平台上只记录告警，线程照常运行。
+ * <p>
+ * 仍创建 {@link io.netty.util.concurrent.FastThreadLocalThread}，不影响 Netty 的 FastThreadLocal 与对象池。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/26 10:12 </p>
+ */
+@Slf4j
+public class EventLoopThreadFactory extends DefaultThreadFactory {
+    private final List<Integer> cpus;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public EventLoopThreadFactory(String prefix) {
+        this(prefix, Collections.emptyList());
+    }
+
+    /**
+     * @param prefix 线程名前缀
+     * @param cpus   绑定的 CPU 编号，为空时不绑核
+     */
+    public EventLoopThreadFactory(String prefix, List<Integer> cpus) {
+        super(prefix);
+        this.cpus = List.copyOf(cpus);
+    }
+
+    @Override
+    protected Thread newThread(Runnable r, String name) {
+        if (cpus.isEmpty()) {
+            return super.newThread(r, name);
+        }
+        int cpu = cpus.get(Math.floorMod(next.getAndIncrement(), cpus.size()));
+        return super.newThread(() -> {
+            pin(name, cpu);
+            r.run();
+        }, name);
+    }
+
+    private static void pin(String name, int cpu) {
+        try {
+            Affinity.setAffinity(cpu);
+            BitSet actual = Affinity.getAffinity();
+            if (actual.cardinality() == 1 && actual.get(cpu)) {
+                log.info("[EventLoopThreadFactory] {} pinned to CPU {}", name, cpu);
+            } else {
+                log.warn("[EventLoopThreadFactory] {} could not be pinned to CPU {}, current affinity {}", name, cpu, actual);
+            }
+        } catch (Throwable e) {
+            log.warn("[EventLoopThreadFactory] {} could not be pinned to CPU {}: {}", name, cpu, e.toString());
+        }
+    }
+
+    /**
+     * 解析 CPU 列表，格式同 taskset -c，例如 "2-5,8,10-11"
+     * @param spec CPU 列表，为空时返回空列表
+     * @return CPU 编号，保持书写顺序
+     */
+    public static List<Integer> parseCpus(String spec) {
+        List<Integer> cpus = new ArrayList<>();
+        if (spec == null || spec.isBlank()) {
+            return cpus;
+        }
+        for (String part : spec.split(",")) {
+            String range = part.trim();
+            if (range.isEmpty()) {
+                continue;
+            }
+            int dash = range.indexOf('-');
+            int from = Integer.parseInt(dash < 0 ? range : range.substring(0, dash).trim());
+            int to = dash < 0 ? from : Integer.parseInt(range.substring(dash + 1).trim());
+            if (from < 0 || to < from) {
+                throw new IllegalArgumentException("Invalid CPU range: " + range);
+            }
+            for (int cpu = from; cpu <= to; cpu++) {
+                cpus.add(cpu);
+            }
+        }
+        return cpus;
+    }
+}
@@ -0,0 +1,251 @@
+package com.zero.nts.transport;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SelectStrategy;
+import io.netty.channel.SelectStrategyFactory;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.unix.UnixChannelOption;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 网络传输实现
+ * <p>
+ * 原生传输（epoll / io_uring）仅在 Linux 且本地库加载成功时可用，不可用时统一回退到 NIO。
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/6 10:05 </p>
+ */
+@Slf4j
+public enum TransportType {
+    /// 自动选择：epoll 可用时使用 epoll，否则使用 NIO
+    AUTO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public TransportType resolve() {
+            return EPOLL.isAvailable() ? EPOLL : NIO;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio, boolean busyPoll) {
+            return resolve().newEventLoopGroup(nThreads, threadFactory, ioRatio, busyPoll);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> serverChannelClass() {
+            return resolve().serverChannelClass();
+        }
+
+        @Override
+        public Class<? extends SocketChannel> socketChannelClass() {
+            return resolve().socketChannelClass();
+        }
+    },
+    /// JDK NIO，全平台可用
+    NIO {
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio, boolean busyPoll) {
+            if (busyPoll) {
+                // NIO 空转的 selectNow 会被当作 JDK epoll 空轮询 bug 而反复重建 Selector
+                log.warn("[Transport] busy-poll is not supported by {}, ignored", this);
+            }
+            NioEventLoopGroup group = new NioEventLoopGroup(nThreads, threadFactory);
+            if (ioRatio > 0) {
+                group.setIoRatio(ioRatio);
+            }
+            return group;
+        }
+
+        @Override
+        public Class<? extends ServerChannel> serverChannelClass() {
+            return NioServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> socketChannelClass() {
+            return NioSocketChannel.class;
+        }
+    },
+    /// Linux epoll（边缘触发），支持 SO_REUSEPORT、TCP_FASTOPEN
+    EPOLL {
+        @Override
+        public boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio, boolean busyPoll) {
+            EpollEventLoopGroup group = busyPoll
+                    ? new EpollEventLoopGroup(nThreads, threadFactory, BUSY_POLL)
+                    : new EpollEventLoopGroup(nThreads, threadFactory);
+            if (ioRatio > 0) {
+                group.setIoRatio(ioRatio);
+            }
+            return group;
+        }
+
+        @Override
+        public Class<? extends ServerChannel> serverChannelClass() {
+            return EpollServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> socketChannelClass() {
+            return EpollSocketChannel.class;
+        }
+
+        @Override
+        public boolean supportsReusePort() {
+            return true;
+        }
+
+        @Override
+        public void configureServer(ServerBootstrap bootstrap, boolean reusePort, int tcpFastOpen) {
+            if (reusePort) {
+                bootstrap.option(UnixChannelOption.SO_REUSEPORT, true);
+            }
+            if (tcpFastOpen > 0) {
+                bootstrap.option(ChannelOption.TCP_FASTOPEN, tcpFastOpen);
+            }
+        }
+    },
+    /// Linux io_uring（孵化模块，需要 5.9+ 内核）
+    IO_URING {
+        @Override
+        public boolean isAvailable() {
+            return IOUring.isAvailable();
+        }
+
+        @Override
+        public EventLoopGroup newEventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio, boolean busyPoll) {
+            if (ioRatio > 0 || busyPoll) {
+                log.warn("[Transport] ioRatio / busy-poll are not supported by {}, ignored", this);
+            }
+            return new IOUringEventLoopGroup(nThreads, threadFactory);
+        }
+
+        @Override
+        public Class<? extends ServerChannel> serverChannelClass() {
+            return IOUringServerSocketChannel.class;
+        }
+
+        @Override
+        public Class<? extends SocketChannel> socketChannelClass() {
+            return IOUringSocketChannel.class;
+        }
+
+        @Override
+        public boolean supportsReusePort() {
+            return true;
+        }
+
+        @Override
+        public void configureServer(ServerBootstrap bootstrap, boolean reusePort, int tcpFastOpen) {
+            if (reusePort) {
+                bootstrap.option(UnixChannelOption.SO_REUSEPORT, true);
+            }
+            if (tcpFastOpen > 0) {
+                bootstrap.option(ChannelOption.TCP_FASTOPEN, tcpFastOpen);
+            }
+        }
+    },
+    ;
+
+    /**
+     * 忙轮询策略：有待执行任务时立即检查就绪事件，否则在本地代码中自旋 epoll_wait 直到有事件或被唤醒，
+     * 事件循环不会进入休眠
+     */
+    private static final SelectStrategyFactory BUSY_POLL =
+            () -> (selectSupplier, hasTasks) -> hasTasks ? selectSupplier.get() : SelectStrategy.BUSY_WAIT;
+
+    /**
+     * 当前环境是否可用
+     */
+    public abstract boolean isAvailable();
+
+    /**
+     * 创建事件循环组
+     * @param nThreads      线程数，0 表示使用 Netty 默认值（2 * CPU 核数）
+     * @param threadFactory 线程工厂，为 null 时使用默认工厂
+     */
+    public EventLoopGroup newEventLoopGroup(int nThreads, ThreadFactory threadFactory) {
+        return newEventLoopGroup(nThreads, threadFactory, 0, false);
+    }
+
+    /**
+     * 创建事件循环组并设置调度参数
+     * @param nThreads      线程数，0 表示使用 Netty 默认值（2 * CPU 核数）
+     * @param threadFactory 线程工厂，为 null 时使用默认工厂
+     * @param ioRatio       每轮循环中 I/O 处理时间占比（1-100），0 表示使用 Netty 默认值 50；
+     *                      100 表示不限制任务执行时间
+     * @param busyPoll      忙轮询：不阻塞在 epoll_wait 上，以独占 CPU 换取更低的唤醒延迟，仅 epoll 支持
+     */
+    public abstract EventLoopGroup newEventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio, boolean busyPoll);
+
+    public abstract Class<? extends ServerChannel> serverChannelClass();
+
+    public abstract Class<? extends SocketChannel> socketChannelClass();
+
+    /**
+     * 解析为当前环境下实际可用的传输实现，不可用时回退到 NIO
+     * @return 具体的传输实现，不会返回 {@link #AUTO}
+     */
+    public TransportType resolve() {
+        if (isAvailable()) {
+            return this;
+        }
+        log.warn("[Transport] {} is not available, fallback to NIO: {}", this, unavailabilityCause());
+        return NIO;
+    }
+
+    /**
+     * 是否支持 SO_REUSEPORT（多个监听 Channel 绑定同一端口，由内核分发连接）
+     */
+    public boolean supportsReusePort() {
+        return false;
+    }
+
+    /**
+     * 设置传输相关的服务端选项
+     * @param bootstrap     服务端启动器
+     * @param reusePort     是否开启 SO_REUSEPORT
+     * @param tcpFastOpen   TCP_FASTOPEN 队列长度，0 表示关闭
+     */
+    public void configureServer(ServerBootstrap bootstrap, boolean reusePort, int tcpFastOpen) {
+        if (reusePort || tcpFastOpen > 0) {
+            log.warn("[Transport] SO_REUSEPORT / TCP_FASTOPEN are not supported by {}, ignored", this);
+        }
+    }
+
+    private Throwable unavailabilityCause() {
+        return switch (this) {
+            case EPOLL -> Epoll.unavailabilityCause();
+            case IO_URING -> IOUring.unavailabilityCause();
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.zero.nts;
+
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 测试用消息构造方法，消息均取自 {@link EasyMessage#newInstance()} 对象池
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/27 10:20 </p>
+ */
+public final class TestMessages {
+
+    private TestMessages() {
+    }
+
+    /**
+     * V1 普通消息，ID 为 1
+     */
+    public static EasyMessage message(String content) {
+        return message(MessageType.NORMAL, 1, content);
+    }
+
+    /**
+     * V1 消息
+     */
+    public static EasyMessage message(MessageType type, long id, String content) {
+        return message(MessageVersion.V1, type, id, content);
+    }
+
+    /**
+     * @param content 数据体，空串表示没有数据体
+     * @return 消息，调用方负责释放
+     */
+    public static EasyMessage message(MessageVersion version, MessageType type, long id, String content) {
+        ByteBuf payload = content.isEmpty() ? null : Unpooled.copiedBuffer(content, StandardCharsets.UTF_8);
+        return EasyMessage.newInstance(version, type, id, 1L, payload);
+    }
+
+    /**
+     * 只写出报文头，用于构造非法或不完整的报文
+     * @param buf    目标缓冲区
+     * @param length 报文头中声明的数据体长度
+     * @param flags  报文头中的 flags（仅 V2）
+     */
+    public static ByteBuf writeHeader(ByteBuf buf, MessageVersion version, int length, byte flags) {
+        EasyMessage message = message(version, MessageType.NORMAL, 1, "");
+        try {
+            message.writeHeader(buf, length, flags);
+            return buf;
+        } finally {
+            message.release();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.zero.nts.benchmark;
+
+import com.zero.nts.NettyTcpServerApplication;
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 基准测试公共方法
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/17 16:10 </p>
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * 以基准测试配置启动服务端：关闭 Web 容器、降低日志级别、关闭心跳探测
+     * @param port  监听端口，0 表示随机端口
+     * @param args  额外的配置项，如 --netty.dispatch.mode=virtual
+     */
+    static ConfigurableApplicationContext startServer(int port, String... args) {
+        String[] defaults = {
+                "--netty.port=" + port,
+                "--logging.level.root=warn",
+                "--netty.idle.heartbeat-interval=0",
+                "--netty.idle.read-timeout=1h",
+        };
+        String[] all = new String[defaults.length + args.length];
+        System.arraycopy(defaults, 0, all, 0, defaults.length);
+        System.arraycopy(args, 0, all, defaults.length, args.length);
+        return new SpringApplicationBuilder(NettyTcpServerApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(all);
+    }
+
+    /**
+     * 构造随机内容的请求消息
+     */
+    static EasyMessage request(int payloadSize) {
+        byte[] data = new byte[payloadSize];
+        ThreadLocalRandom.current().nextBytes(data);
+        return new EasyMessage(MessageVersion.V1, MessageType.NORMAL, 1L, System.currentTimeMillis(), data);
+    }
+
+    /**
+     * 将若干条消息编码为连续的帧，返回不可释放的直接内存缓冲区，可反复 duplicate 使用
+     */
+    static ByteBuf encode(int payloadSize, int count) {
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        ByteBuf frames = Unpooled.directBuffer();
+        for (int i = 0; i < count; i++) {
+            encoder.writeOutbound(request(payloadSize));
+            ByteBuf frame = encoder.readOutbound();
+            frames.writeBytes(frame);
+            frame.release();
+        }
+        encoder.finishAndReleaseAll();
+        return Unpooled.unreleasableBuffer(frames);
+    }
+}
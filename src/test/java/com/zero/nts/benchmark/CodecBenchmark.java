@@ -0,0 +1,77 @@
+package com.zero.nts.benchmark;
+
+import com.zero.nts.codec.EasyDecoder;
+import com.zero.nts.codec.PayloadMode;
+import com.zero.nts.message.EasyMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 解码器基准：不同数据体大小、数据体承载方式，以及整帧到达（粘包）与按 MSS 分片到达两种输入
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=CodecBenchmark
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/17 16:32 </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+    /** 每次调用解码的帧数 */
+    private static final int FRAMES = 8;
+    /** 分片输入时每片的大小，模拟以太网 MSS */
+    private static final int MSS = 1448;
+
+    @Param({"0", "64", "1024", "16384", "1048576"})
+    private int payloadSize;
+
+    @Param({"COALESCED", "FRAGMENTED"})
+    private String input;
+
+    @Param({"HEAP_COPY", "RETAINED_SLICE", "POOLED_DIRECT"})
+    private PayloadMode payloadMode;
+
+    private final List<ByteBuf> chunks = new ArrayList<>();
+    private EmbeddedChannel channel;
+
+    @Setup
+    public void setup() {
+        ByteBuf frames = BenchmarkSupport.encode(payloadSize, FRAMES);
+        if ("COALESCED".equals(input)) {
+            chunks.add(frames);
+        } else {
+            for (int offset = 0; offset < frames.readableBytes(); offset += MSS) {
+                chunks.add(frames.slice(offset, Math.min(MSS, frames.readableBytes() - offset)));
+            }
+        }
+        channel = new EmbeddedChannel(new EasyDecoder(payloadMode));
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public void decode(Blackhole bh) {
+        for (ByteBuf chunk : chunks) {
+            channel.writeInbound(chunk.retainedDuplicate());
+        }
+        EasyMessage message;
+        while ((message = channel.readInbound()) != null) {
+            bh.consume(message.getLength());
+            message.release();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.zero.nts.benchmark;
+
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.MessageToByteEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 编码器基准：旧实现（toByteBuf 再拷贝）与直接写入池化缓冲区的实现对比
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=EncoderBenchmark -Dbenchmark.args="-prof gc"
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/4 09:30 </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncoderBenchmark {
+
+    @Param({"0", "128", "4096", "65536", "1048576"})
+    private int payloadSize;
+
+    private byte[] data;
+    private EmbeddedChannel legacy;
+    private EmbeddedChannel pooled;
+
+    @Setup
+    public void setup() {
+        data = new byte[payloadSize];
+        legacy = new EmbeddedChannel(new LegacyEncoder());
+        pooled = new EmbeddedChannel(new EasyEncoder());
+    }
+
+    @TearDown
+    public void tearDown() {
+        legacy.finishAndReleaseAll();
+        pooled.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    public void legacyEncode(Blackhole bh) {
+        encode(legacy, bh);
+    }
+
+    @Benchmark
+    public void pooledEncode(Blackhole bh) {
+        encode(pooled, bh);
+    }
+
+    private void encode(EmbeddedChannel channel, Blackhole bh) {
+        channel.writeOutbound(new EasyMessage(MessageVersion.V1, MessageType.NORMAL, 1L, 0L, data));
+        ByteBuf frame = channel.readOutbound();
+        bh.consume(frame.readableBytes());
+        frame.release();
+    }
+
+    /**
+     * 旧的编码实现：先序列化到非池化堆缓冲区，再拷贝到输出缓冲区
+     */
+    static class LegacyEncoder extends MessageToByteEncoder<EasyMessage> {
+        @Override
+        protected void encode(ChannelHandlerContext ctx, EasyMessage msg, ByteBuf out) {
+            ByteBuf buf = msg.toByteBuf();
+            out.writeBytes(buf);
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.zero.nts.benchmark;
+
+import com.zero.nts.client.EasyClient;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本机回环端到端基准：真实的服务端与 {@link EasyClient}
+ * <p>
+ *  - roundTrip：单请求往返延迟，SampleTime 模式输出 p50 / p99 / p999；
+ *  - pipelined：单连接上保持 {@link #WINDOW} 个在途请求时的吞吐（msgs/sec）；
+ *  - 每条消息的分配字节数见 -prof gc 输出的 gc.alloc.rate.norm。
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=LoopbackBenchmark
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/17 17:40 </p>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class LoopbackBenchmark {
+    private static final int PORT = 19879;
+    private static final int WINDOW = 64;
+
+    @Param({"16", "1024", "65536"})
+    private int payloadSize;
+
+    @Param({"inline", "virtual"})
+    private String dispatchMode;
+
+    private ConfigurableApplicationContext context;
+    private EasyClient client;
+    private byte[] data;
+
+    @Setup
+    public void setup() throws InterruptedException {
+        context = BenchmarkSupport.startServer(PORT, "--netty.dispatch.mode=" + dispatchMode, "--netty.no-delay=true");
+        client = new EasyClient("127.0.0.1", PORT).connect();
+        data = BenchmarkSupport.request(payloadSize).getData();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int roundTrip() throws Exception {
+        EasyMessage response = client.send(newRequest()).get();
+        int length = response.getLength();
+        response.release();
+        return length;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(WINDOW)
+    public int pipelined() throws Exception {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<EasyMessage>[] responses = new CompletableFuture[WINDOW];
+        for (int i = 0; i < WINDOW; i++) {
+            responses[i] = client.send(newRequest());
+        }
+        int total = 0;
+        for (CompletableFuture<EasyMessage> future : responses) {
+            EasyMessage response = future.get();
+            total += response.getLength();
+            response.release();
+        }
+        return total;
+    }
+
+    private EasyMessage newRequest() {
+        return new EasyMessage(MessageVersion.V1, MessageType.NORMAL, 0, 0, data);
+    }
+}
@@ -0,0 +1,77 @@
+package com.zero.nts.benchmark;
+
+import com.zero.nts.server.EasyServerInitializer;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 完整服务端 pipeline 基准：解码 -> {@link com.zero.nts.server.handler.EasyServerHandler} -> 编码，
+ * 使用 {@link EmbeddedChannel} 排除网络开销，pipeline 与线上一致（由 {@link EasyServerInitializer} 构建）
+ * <p>
+ * 运行：mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PipelineBenchmark
+ *
+ * @author Zero.
+ * <p> Created on 2025/6/17 17:05 </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+    /** 一次读取中流水线到达的请求数 */
+    private static final int BATCH = 32;
+
+    @Param({"16", "1024", "16384"})
+    private int payloadSize;
+
+    @Param({"immediate", "batch"})
+    private String flushMode;
+
+    private ConfigurableApplicationContext context;
+    private EmbeddedChannel channel;
+    private ByteBuf single;
+    private ByteBuf batch;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkSupport.startServer(0, "--netty.flush.mode=" + flushMode);
+        channel = new EmbeddedChannel(context.getBean(EasyServerInitializer.class));
+        single = BenchmarkSupport.encode(payloadSize, 1);
+        batch = BenchmarkSupport.encode(payloadSize, BATCH);
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        context.close();
+    }
+
+    @Benchmark
+    public void requestResponse(Blackhole bh) {
+        channel.writeInbound(single.retainedDuplicate());
+        drain(bh);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pipelined(Blackhole bh) {
+        channel.writeInbound(batch.retainedDuplicate());
+        drain(bh);
+    }
+
+    private void drain(Blackhole bh) {
+        Object out;
+        while ((out = channel.readOutbound()) != null) {
+            ByteBuf buf = (ByteBuf) out;
+            bh.consume(buf.readableBytes());
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.zero.nts.client;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import com.zero.nts.client.handler.ResponseCorrelationHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class EasyClientTests {
+    @Autowired
+    private NettyProperties properties;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void pipelinedRequestsAreCorrelated() throws Exception {
+        try (EasyClient client = new EasyClient(properties.getHost(), properties.getPort()).connect()) {
+            List<CompletableFuture<EasyMessage>> responses = new ArrayList<>();
+            List<EasyMessage> requests = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                EasyMessage request = new EasyMessage(MessageVersion.V1, MessageType.NORMAL, 0, 0,
+                        ("request-" + i).getBytes(StandardCharsets.UTF_8));
+                requests.add(request);
+                responses.add(client.send(request));
+            }
+            for (int i = 0; i < responses.size(); i++) {
+                EasyMessage response = responses.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(requests.get(i).getId(), response.getId());
+                assertEquals("Response", response.getDataAsString(StandardCharsets.UTF_8));
+                response.release();
+            }
+            assertEquals(0, client.inFlight());
+        }
+        assertTrue(meterRegistry.get("nts.frames.decoded").counter().count() >= 200);
+        assertTrue(meterRegistry.get("nts.handler.latency").timer().count() >= 200);
+    }
+
+    @Test
+    void goAwayClosesAfterInFlightRequests() throws Exception {
+        ResponseCorrelationHandler handler = new ResponseCorrelationHandler(EasyClient.sharedTimer());
+        EmbeddedChannel channel = new EmbeddedChannel(handler);
+        CompletableFuture<EasyMessage> pending = handler.request(new EasyMessage(MessageVersion.V1, MessageType.NORMAL, 0, 0, new byte[0]), 5000);
+        EasyMessage request = channel.readOutbound();
+
+        channel.writeInbound(new EasyMessage(MessageVersion.V1, MessageType.GO_AWAY, EasyMessage.PROBE_ID, 0, new byte[0]));
+        assertTrue(handler.isGoingAway());
+        assertTrue(channel.isOpen());
+        assertTrue(handler.request(new EasyMessage(MessageVersion.V1, MessageType.NORMAL, 0, 0, new byte[0]), 5000).isCompletedExceptionally());
+
+        channel.writeInbound(new EasyMessage(MessageVersion.V1, MessageType.NORMAL, request.getId(), 0, new byte[0]));
+        assertTrue(pending.isDone());
+        pending.get().release();
+        assertFalse(channel.isOpen());
+    }
+}
@@ -0,0 +1,48 @@
+package com.zero.nts.client.load;
+
+import com.zero.nts.message.MessageVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadOptionsTests {
+
+    @Test
+    void parseOptions() {
+        LoadOptions options = LoadOptions.parse("-connections=10000", "--rates=1000, 2000", "-duration=2m",
+                "-payload=64-128", "-version=v2", "-label=batch");
+        assertEquals(10000, options.getConnections());
+        assertEquals(List.of(1000L, 2000L), options.getRates());
+        assertEquals(Duration.ofMinutes(2), options.getDuration());
+        assertEquals(MessageVersion.V2, options.getVersion());
+        assertEquals(128, options.getPayload().max());
+        assertThrows(IllegalArgumentException.class, () -> LoadOptions.parse("-unknown=1"));
+    }
+
+    @Test
+    void weightedPayloadDistribution() {
+        PayloadDistribution distribution = PayloadDistribution.parse("100*3,1000*1");
+        Random random = new Random(42);
+        int small = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int size = distribution.next(random);
+            assertTrue(size == 100 || size == 1000);
+            if (size == 100) {
+                small++;
+            }
+        }
+        // 权重 3:1
+        assertEquals(7500, small, 300);
+        assertEquals(1000, distribution.max());
+
+        PayloadDistribution uniform = PayloadDistribution.parse("10-20");
+        for (int i = 0; i < 1000; i++) {
+            int size = uniform.next(random);
+            assertTrue(size >= 10 && size <= 20);
+        }
+    }
+}
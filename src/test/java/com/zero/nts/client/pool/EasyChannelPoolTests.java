@@ -0,0 +1,76 @@
+package com.zero.nts.client.pool;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.Channel;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class EasyChannelPoolTests {
+    @Autowired
+    private NettyProperties properties;
+
+    @Test
+    void spreadsLoadAndKeepsConnectionsHealthy() throws Exception {
+        EasyPoolConfig config = new EasyPoolConfig();
+        config.setMinConnections(2);
+        config.setMaxConnections(4);
+        config.setMaxInFlightPerConnection(16);
+        config.setHealthCheckInterval(Duration.ofMillis(100));
+        try (EasyChannelPool pool = new EasyChannelPool(properties.getHost(), properties.getPort(), config)) {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            pool.metrics().bindTo(registry);
+            List<CompletableFuture<EasyMessage>> responses = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                responses.add(pool.send(new EasyMessage(MessageVersion.V1, MessageType.NORMAL, 0, 0,
+                        ("pooled-" + i).getBytes(StandardCharsets.UTF_8))));
+            }
+            for (CompletableFuture<EasyMessage> response : responses) {
+                response.get(5, TimeUnit.SECONDS).release();
+            }
+            assertTrue(pool.connections() >= 2 && pool.connections() <= 4);
+            assertEquals(0, pool.inFlight());
+            assertEquals(500, pool.metrics().acquireCount());
+            assertEquals(500, registry.get("nts.pool.acquire.latency").timer().count());
+
+            // 等待若干轮心跳检查，连接应保持健康
+            Thread.sleep(350);
+            assertEquals(0, pool.metrics().unhealthyClosed());
+        }
+    }
+
+    @Test
+    void releaseIsBalanced() throws Exception {
+        EasyPoolConfig config = new EasyPoolConfig();
+        config.setMinConnections(1);
+        config.setMaxConnections(1);
+        try (EasyChannelPool pool = new EasyChannelPool(properties.getHost(), properties.getPort(), config)) {
+            Channel channel = pool.acquire().get(5, TimeUnit.SECONDS);
+            assertEquals(1, pool.inFlight());
+            assertTrue(pool.release(channel).await(5, TimeUnit.SECONDS));
+            // 重复释放不会让在途计数变为负数
+            assertTrue(pool.release(channel).await(5, TimeUnit.SECONDS));
+            assertEquals(0, pool.inFlight());
+
+            // 不属于本连接池的连接
+            Future<Void> foreign = pool.release(new EmbeddedChannel());
+            assertInstanceOf(IllegalArgumentException.class, foreign.cause());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.zero.nts.cluster;
+
+import com.zero.nts.codec.EasyDecoder;
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import com.zero.nts.server.broadcast.BroadcastEngine;
+import com.zero.nts.server.session.SessionRegistry;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.*;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.zero.nts.TestMessages.message;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在本机回环地址上启动多个节点验证会话同步与消息转发
+ */
+class ClusterNodeTests {
+    private static final String SECRET = "cluster-secret";
+    private final EventLoopGroup group = new NioEventLoopGroup(2);
+    private final List<Node> nodes = new ArrayList<>();
+
+    /**
+     * 精简的节点：只处理登录与集群报文
+     */
+    private final class Node {
+        final SessionRegistry sessions = new SessionRegistry();
+        final BroadcastEngine broadcast = new BroadcastEngine(new NettyProperties());
+        Channel server;
+        ClusterNode cluster;
+
+        Node bind() throws InterruptedException {
+            server = new ServerBootstrap()
+                    .group(group)
+                    .channel(NioServerSocketChannel.class)
+                    .childHandler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel ch) {
+                            ch.pipeline().addLast(new EasyDecoder(), new EasyEncoder(), new SimpleChannelInboundHandler<EasyMessage>() {
+                                @Override
+                                public void channelActive(ChannelHandlerContext ctx) {
+                                    broadcast.register(ctx.channel());
+                                }
+
+                                @Override
+                                public void channelInactive(ChannelHandlerContext ctx) {
+                                    sessions.unbind(ctx.channel());
+                                }
+
+                                @Override
+                                protected void channelRead0(ChannelHandlerContext ctx, EasyMessage msg) {
+                                    if (msg.getType() == MessageType.LOGIN) {
+                                        sessions.bind(msg.getDataAsString(StandardCharsets.UTF_8), ctx.channel());
+                                    } else if (msg.getType() == MessageType.CLUSTER) {
+                                        cluster.receive(ctx.channel(), msg);
+                                    }
+                                }
+                            });
+                        }
+                    })
+                    .bind("127.0.0.1", 0).sync().channel();
+            return this;
+        }
+
+        String id() {
+            return "127.0.0.1:" + ((InetSocketAddress) server.localAddress()).getPort();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Node node : nodes) {
+            node.cluster.stop();
+            node.server.close();
+        }
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+    }
+
+    private void startCluster(int size) throws InterruptedException {
+        for (int i = 0; i < size; i++) {
+            nodes.add(new Node().bind());
+        }
+        List<String> ids = nodes.stream().map(Node::id).toList();
+        for (Node node : nodes) {
+            NettyProperties properties = new NettyProperties();
+            properties.getCluster().setEnabled(true);
+            properties.getCluster().setNodeId(node.id());
+            properties.getCluster().setPeers(ids);
+            properties.getCluster().setSecret(SECRET);
+            properties.getCluster().setReconnectDelay(Duration.ofMillis(100));
+            node.cluster = new ClusterNode(properties, node.sessions, node.broadcast);
+            node.cluster.start();
+        }
+        for (Node node : nodes) {
+            await(() -> node.cluster.activeLinks() == size - 1);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void routeAcrossNodes() throws Exception {
+        startCluster(3);
+        Node a = nodes.get(0), b = nodes.get(1), c = nodes.get(2);
+
+        BlockingQueue<EasyMessage> received = new LinkedBlockingQueue<>();
+        Channel client = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new EasyDecoder(), new EasyEncoder(), new ChannelInboundHandlerAdapter() {
+                            @Override
+                            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                                received.add((EasyMessage) msg);
+                            }
+                        });
+                    }
+                })
+                .connect(b.server.localAddress()).sync().channel();
+        client.writeAndFlush(message(MessageType.LOGIN, 1, "alice")).sync();
+
+        // 会话归属同步到其他节点
+        await(() -> b.id().equals(a.cluster.owner("alice")) && b.id().equals(c.cluster.owner("alice")));
+
+        // 从其他节点定向发送
+        assertTrue(a.cluster.sendTo("alice", message(MessageType.NORMAL, 7, "direct")));
+        EasyMessage direct = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(direct);
+        assertEquals(7, direct.getId());
+        assertEquals("direct", direct.getDataAsString(StandardCharsets.UTF_8));
+        direct.release();
+
+        // 从其他节点广播
+        EasyMessage broadcast = message(MessageType.NORMAL, 8, "everyone");
+        c.cluster.broadcast(broadcast);
+        broadcast.release();
+        EasyMessage fanned = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(fanned);
+        assertEquals(8, fanned.getId());
+        fanned.release();
+
+        // 客户端断开后其他节点移除会话
+        client.close().sync();
+        await(() -> a.cluster.owner("alice") == null && c.cluster.owner("alice") == null);
+        assertFalse(a.cluster.sendTo("alice", message(MessageType.NORMAL, 9, "gone")));
+    }
+
+    @Test
+    void rejectFramesFromUnknownNodes() throws Exception {
+        startCluster(2);
+        Node a = nodes.get(0), b = nodes.get(1);
+
+        // 客户端冒充未配置的节点声明会话归属
+        assertRejected(a, "10.0.0.1:9879", SECRET.getBytes(StandardCharsets.UTF_8));
+        // 与已配置节点同一主机的进程冒充该节点，但不知道集群密钥
+        assertRejected(a, b.id(), "guess".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void assertRejected(Node node, String origin, byte[] secret) throws InterruptedException {
+        Channel client = new Bootstrap()
+                .group(group)
+                .channel(NioSocketChannel.class)
+                .handler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(SocketChannel ch) {
+                        ch.pipeline().addLast(new EasyEncoder());
+                    }
+                })
+                .connect(node.server.localAddress()).sync().channel();
+
+        ByteBuf body = Unpooled.buffer();
+        ClusterFrame.writeString(body, origin);
+        ClusterFrame.writeBytes(body, secret);
+        ClusterFrame.writeEntry(body, new ClusterFrame.Entry(ClusterFrame.BIND, "mallory", null));
+        client.writeAndFlush(EasyMessage.newInstance(MessageVersion.V1, MessageType.CLUSTER, 1, 1L, body)).sync();
+
+        assertTrue(client.closeFuture().await(5, TimeUnit.SECONDS));
+        assertNull(node.cluster.owner("mallory"));
+    }
+}
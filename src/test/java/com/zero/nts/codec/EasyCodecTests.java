@@ -0,0 +1,350 @@
+package com.zero.nts.codec;
+
+import com.zero.nts.message.EasyContent;
+import com.zero.nts.message.EasyMessage;
+import com.zero.nts.message.MessageType;
+import com.zero.nts.message.MessageVersion;
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.buffer.UnpooledDirectByteBuf;
+import io.netty.buffer.UnpooledHeapByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.zero.nts.TestMessages.message;
+import static com.zero.nts.TestMessages.writeHeader;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EasyCodecTests {
+
+    @ParameterizedTest
+    @EnumSource(PayloadMode.class)
+    void roundTrip(PayloadMode mode) {
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        assertTrue(encoder.writeOutbound(message(MessageType.NORMAL, 42, "Hello"), message("World")));
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(mode));
+        ByteBuf frame;
+        while ((frame = encoder.readOutbound()) != null) {
+            decoder.writeInbound(frame);
+        }
+
+        EasyMessage first = decoder.readInbound();
+        EasyMessage second = decoder.readInbound();
+        assertEquals(42, first.getId());
+        assertEquals("Hello", first.getDataAsString(StandardCharsets.UTF_8));
+        assertEquals("World", new String(second.getData(), StandardCharsets.UTF_8));
+        assertTrue(first.release());
+        assertTrue(second.release());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    void retainedSliceReleasesPayload() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        encoder.writeOutbound(message("zero-copy"));
+        ByteBuf frame = encoder.readOutbound();
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.RETAINED_SLICE));
+        decoder.writeInbound(frame);
+        EasyMessage message = decoder.readInbound();
+        ByteBuf payload = message.getPayload();
+        assertNotNull(payload);
+        assertEquals(1, payload.refCnt());
+
+        message.release();
+        assertEquals(0, payload.refCnt());
+        assertFalse(decoder.finish());
+    }
+
+    @ParameterizedTest
+    @EnumSource(CumulatorMode.class)
+    void largeFrameAcrossReads(CumulatorMode cumulatorMode) {
+        String content = "a".repeat(64 * 1024);
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        encoder.writeOutbound(message(content), message("tail"));
+        ByteBuf frames = Unpooled.buffer();
+        ByteBuf frame;
+        while ((frame = encoder.readOutbound()) != null) {
+            frames.writeBytes(frame);
+            frame.release();
+        }
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.RETAINED_SLICE,
+                EasyDecoder.DEFAULT_MAX_FRAME_SIZE, 0, cumulatorMode));
+        while (frames.isReadable()) {
+            decoder.writeInbound(frames.readRetainedSlice(Math.min(1000, frames.readableBytes())));
+        }
+        frames.release();
+
+        EasyMessage large = decoder.readInbound();
+        EasyMessage tail = decoder.readInbound();
+        assertEquals(content, large.getDataAsString(StandardCharsets.UTF_8));
+        assertEquals("tail", tail.getDataAsString(StandardCharsets.UTF_8));
+        large.release();
+        tail.release();
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    void forgedLengthDoesNotPreallocate() {
+        // 记录解码器申请过的最大缓冲区
+        AtomicInteger maxCapacity = new AtomicInteger();
+        ByteBufAllocator alloc = new AbstractByteBufAllocator(false) {
+            @Override
+            protected ByteBuf newHeapBuffer(int initialCapacity, int max) {
+                maxCapacity.accumulateAndGet(initialCapacity, Math::max);
+                return new UnpooledHeapByteBuf(this, initialCapacity, max);
+            }
+
+            @Override
+            protected ByteBuf newDirectBuffer(int initialCapacity, int max) {
+                maxCapacity.accumulateAndGet(initialCapacity, Math::max);
+                return new UnpooledDirectByteBuf(this, initialCapacity, max);
+            }
+
+            @Override
+            public boolean isDirectBufferPooled() {
+                return false;
+            }
+        };
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.RETAINED_SLICE, Integer.MAX_VALUE, 0));
+        decoder.config().setAllocator(alloc);
+
+        // 报文头声明 1 GiB 的数据体，实际只发送少量字节
+        ByteBuf frame = Unpooled.buffer();
+        writeHeader(frame, MessageVersion.V1, (1 << 30) - 1, (byte) 0);
+        decoder.writeInbound(frame.writeByte(1));
+        decoder.writeInbound(Unpooled.buffer().writeByte(2));
+        decoder.writeInbound(Unpooled.buffer().writeZero(1000));
+        assertNull(decoder.readInbound());
+        assertTrue(maxCapacity.get() < 4096, "allocated " + maxCapacity.get());
+        decoder.finishAndReleaseAll();
+    }
+
+    @Test
+    void emptyBodyAtEndOfRead() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        encoder.writeOutbound(message(MessageType.HEART_BEAT, 7, ""));
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder());
+        decoder.writeInbound((ByteBuf) encoder.readOutbound());
+        EasyMessage heartbeat = decoder.readInbound();
+        assertNotNull(heartbeat);
+        assertEquals(7, heartbeat.getId());
+        heartbeat.release();
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    void fragmentedFrame() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        encoder.writeOutbound(message("fragmented payload"));
+        ByteBuf frame = encoder.readOutbound();
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.POOLED_DIRECT));
+        while (frame.isReadable()) {
+            decoder.writeInbound(frame.readRetainedSlice(Math.min(5, frame.readableBytes())));
+        }
+        frame.release();
+
+        EasyMessage message = decoder.readInbound();
+        assertEquals("fragmented payload", message.getDataAsString(StandardCharsets.UTF_8));
+        message.release();
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    void customTypeCode() {
+        EasyMessage custom = message("custom");
+        custom.setTypeCode((byte) 42);
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        encoder.writeOutbound(custom);
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder());
+        decoder.writeInbound((ByteBuf) encoder.readOutbound());
+        EasyMessage message = decoder.readInbound();
+        assertEquals(42, message.getTypeCode());
+        assertNull(message.getType());
+        assertEquals(MessageType.NORMAL, MessageType.lookup(MessageType.NORMAL.getValue()));
+        message.release();
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadCompression.class)
+    void compressedRoundTrip(PayloadCompression compression) {
+        String content = "compressible payload ".repeat(4096);
+        EasyMessage request = message(MessageVersion.V2, MessageType.NORMAL, 7, content);
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder(EasyEncoder.DEFAULT_COMPOSITE_THRESHOLD, compression, 1024));
+        encoder.writeOutbound(request);
+        ByteBuf frame = encoder.readOutbound();
+        if (compression != PayloadCompression.NONE) {
+            assertTrue(frame.readableBytes() < content.length());
+        }
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.RETAINED_SLICE));
+        while (frame.isReadable()) {
+            decoder.writeInbound(frame.readRetainedSlice(Math.min(1000, frame.readableBytes())));
+        }
+        frame.release();
+
+        EasyMessage message = decoder.readInbound();
+        assertEquals(MessageVersion.V2, message.getVersion());
+        assertEquals(content.length(), message.getLength());
+        assertEquals(content, message.getDataAsString(StandardCharsets.UTF_8));
+        message.release();
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    void lz4RejectsForgedLengthPrefix() {
+        ByteBuf plain = Unpooled.wrappedBuffer("compressible payload ".repeat(100).getBytes(StandardCharsets.UTF_8));
+        ByteBuf compressed = PayloadCompression.LZ4.compress(UnpooledByteBufAllocator.DEFAULT, plain);
+        int length = plain.readableBytes();
+        // 前缀声明的长度与实际解压出的长度不一致、超过上限、输入被截断
+        for (int forged : new int[]{length + 1, length - 1}) {
+            ByteBuf src = compressed.copy().setInt(0, forged);
+            assertThrows(RuntimeException.class, () -> PayloadCompression.LZ4.decompress(UnpooledByteBufAllocator.DEFAULT, src, 1 << 20));
+            src.release();
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> PayloadCompression.LZ4.decompress(UnpooledByteBufAllocator.DEFAULT, compressed.duplicate(), length - 1));
+        ByteBuf truncated = compressed.copy(0, compressed.readableBytes() / 2);
+        assertThrows(RuntimeException.class, () -> PayloadCompression.LZ4.decompress(UnpooledByteBufAllocator.DEFAULT, truncated, 1 << 20));
+        truncated.release();
+
+        // 解码器遇到非法压缩数据时关闭连接
+        ByteBuf forged = Unpooled.buffer();
+        writeHeader(forged, MessageVersion.V2, compressed.readableBytes(), PayloadCompression.LZ4.getFlag());
+        forged.writeBytes(compressed, compressed.readerIndex(), compressed.readableBytes()).setInt(MessageVersion.V2.getHeaderSize(), length + 1);
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.RETAINED_SLICE));
+        assertThrows(DecoderException.class, () -> decoder.writeInbound(forged));
+        assertFalse(decoder.isOpen());
+
+        ByteBuf decompressed = PayloadCompression.LZ4.decompress(UnpooledByteBufAllocator.DEFAULT, compressed, 1 << 20);
+        assertEquals(plain, decompressed);
+        decompressed.release();
+        compressed.release();
+    }
+
+    @Test
+    void compressedFramesAreBounded() {
+        // 约 30 字节的报文在前缀中声明 1 GiB 的原始长度，分配输出缓冲区之前即被拒绝
+        ByteBuf bomb = Unpooled.buffer();
+        writeHeader(bomb, MessageVersion.V2, 5, PayloadCompression.LZ4.getFlag());
+        bomb.writeInt(1 << 30).writeByte(0);
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.RETAINED_SLICE));
+        assertThrows(DecoderException.class, () -> decoder.writeInbound(bomb));
+        assertFalse(decoder.isOpen());
+
+        // 压缩数据体超过解压上限时在报文头阶段关闭连接，不再整体累积
+        ByteBuf large = Unpooled.buffer();
+        writeHeader(large, MessageVersion.V2, 4096, PayloadCompression.LZ4.getFlag());
+        EmbeddedChannel limited = new EmbeddedChannel(new EasyDecoder(PayloadMode.RETAINED_SLICE,
+                EasyDecoder.DEFAULT_MAX_FRAME_SIZE, 0, CumulatorMode.MERGE, 1024));
+        assertFalse(limited.writeInbound(large));
+        assertFalse(limited.isOpen());
+
+        // 编码器不压缩超过解压上限的数据体
+        String content = "compressible payload ".repeat(100);
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder(EasyEncoder.DEFAULT_COMPOSITE_THRESHOLD, PayloadCompression.LZ4, 16, 1024));
+        encoder.writeOutbound(message(MessageVersion.V2, MessageType.NORMAL, 7, content));
+        ByteBuf frame = encoder.readOutbound();
+        assertEquals(MessageVersion.V2.getHeaderSize() + content.length(), frame.readableBytes());
+        assertEquals(0, frame.getByte(MessageVersion.V2.getHeaderSize() - 1));
+        frame.release();
+    }
+
+    @ParameterizedTest
+    @EnumSource(PayloadMode.class)
+    void streamedBody(PayloadMode mode) {
+        String content = "x".repeat(10_000);
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        encoder.writeOutbound(message(MessageType.NORMAL, 42, content));
+        ByteBuf frame = encoder.readOutbound();
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(mode, EasyDecoder.DEFAULT_MAX_FRAME_SIZE, 4096));
+        while (frame.isReadable()) {
+            decoder.writeInbound(frame.readRetainedSlice(Math.min(1000, frame.readableBytes())));
+        }
+        frame.release();
+
+        EasyMessage header = decoder.readInbound();
+        assertTrue(header.isChunked());
+        assertEquals(42, header.getId());
+        assertEquals(content.length(), header.getLength());
+        assertNull(header.getPayload());
+        header.release();
+
+        StringBuilder body = new StringBuilder();
+        EasyContent chunk;
+        boolean last = false;
+        while ((chunk = decoder.readInbound()) != null) {
+            assertFalse(last);
+            assertEquals(42, chunk.getId());
+            body.append(chunk.content().toString(StandardCharsets.UTF_8));
+            last = chunk.isLast();
+            chunk.release();
+        }
+        assertTrue(last);
+        assertEquals(content, body.toString());
+        assertFalse(decoder.finish());
+    }
+
+    @Test
+    void oversizedFrameClosesChannel() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new EasyEncoder());
+        encoder.writeOutbound(message("x".repeat(200)));
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.HEAP_COPY, 100, 0));
+        decoder.writeInbound((ByteBuf) encoder.readOutbound());
+        assertNull(decoder.readInbound());
+        assertFalse(decoder.isOpen());
+    }
+
+    @Test
+    void invalidHeaderClosesChannel() {
+        // 未知的协议版本
+        ByteBuf badVersion = Unpooled.buffer();
+        writeHeader(badVersion, MessageVersion.V1, 1, (byte) 0).setByte(2, 9).writeByte('x');
+        // 未定义的压缩位，报文头之后紧跟下一个报文
+        ByteBuf badFlags = Unpooled.buffer();
+        writeHeader(badFlags, MessageVersion.V2, 1, (byte) 5).writeByte('x');
+        writeHeader(badFlags, MessageVersion.V1, 4, (byte) 0);
+
+        for (ByteBuf frame : new ByteBuf[]{badVersion, badFlags}) {
+            EmbeddedChannel decoder = new EmbeddedChannel(new EasyDecoder(PayloadMode.RETAINED_SLICE));
+            assertFalse(decoder.writeInbound(frame));
+            assertFalse(decoder.isOpen());
+            assertEquals(0, frame.refCnt());
+        }
+    }
+
+    @Test
+    void pooledMessageIsResetOnRelease() {
+        for (int i = 0; i < 16; i++) {
+            ByteBuf payload = Unpooled.directBuffer().writeBytes("pooled".getBytes(StandardCharsets.UTF_8));
+            EasyMessage message = EasyMessage.newInstance(MessageVersion.V2, MessageType.NORMAL, 42, 1, payload);
+            message.setDroppable(true);
+            assertEquals(6, message.getLength());
+            assertTrue(message.release());
+            assertEquals(0, payload.refCnt());
+        }
+        EasyMessage message = EasyMessage.newInstance();
+        assertEquals(1, message.refCnt());
+        assertEquals(0, message.getId());
+        assertNull(message.getVersion());
+        assertNull(message.getPayload());
+        assertFalse(message.isDroppable());
+        message.release();
+    }
+}
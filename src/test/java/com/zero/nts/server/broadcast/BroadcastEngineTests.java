@@ -0,0 +1,85 @@
+package com.zero.nts.server.broadcast;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static com.zero.nts.TestMessages.message;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BroadcastEngineTests {
+
+    @Test
+    void publishToSubscribersOnly() {
+        BroadcastEngine engine = new BroadcastEngine(new NettyProperties());
+        EmbeddedChannel subscriber = new EmbeddedChannel();
+        EmbeddedChannel other = new EmbeddedChannel();
+        engine.register(subscriber);
+        engine.register(other);
+        engine.subscribe(subscriber, "news");
+
+        EasyMessage message = message("hello");
+        assertEquals(1, engine.publish("news", message));
+        assertEquals(2, engine.broadcast(message));
+        message.release();
+        subscriber.runPendingTasks();
+        other.runPendingTasks();
+
+        ByteBuf first = subscriber.readOutbound();
+        ByteBuf second = subscriber.readOutbound();
+        ByteBuf broadcast = other.readOutbound();
+        assertNotNull(first);
+        assertEquals(first, second);
+        assertEquals(first, broadcast);
+        assertNull(other.readOutbound());
+        first.release();
+        second.release();
+        // 所有副本释放后共享报文归还
+        assertEquals(1, broadcast.refCnt());
+        assertTrue(broadcast.release());
+        assertEquals(3, engine.delivered());
+    }
+
+    @Test
+    void closedChannelIsUnsubscribed() {
+        BroadcastEngine engine = new BroadcastEngine(new NettyProperties());
+        EmbeddedChannel channel = new EmbeddedChannel();
+        engine.register(channel);
+        engine.subscribe(channel, "news");
+        assertEquals(1, engine.subscribers("news"));
+
+        channel.close();
+        assertEquals(0, engine.size());
+        assertEquals(0, engine.subscribers("news"));
+    }
+
+    @Test
+    void sendToAllReachesSlowConsumers() {
+        BroadcastEngine engine = new BroadcastEngine(new NettyProperties());
+        EmbeddedChannel slow = new EmbeddedChannel();
+        slow.config().setWriteBufferWaterMark(new WriteBufferWaterMark(1, 2));
+        engine.register(slow);
+        // 写缓冲区超过高水位，连接不可写
+        slow.write(Unpooled.buffer(16).writeZero(16));
+        assertFalse(slow.isWritable());
+
+        EasyMessage message = message("bye");
+        engine.broadcast(message);
+        slow.runPendingTasks();
+        assertEquals(1, engine.dropped());
+
+        assertEquals(1, engine.sendToAll(message));
+        message.release();
+        slow.runPendingTasks();
+        ByteBuf pending = slow.readOutbound();
+        ByteBuf frame = slow.readOutbound();
+        assertEquals(16, pending.readableBytes());
+        assertNotNull(frame);
+        pending.release();
+        frame.release();
+    }
+}
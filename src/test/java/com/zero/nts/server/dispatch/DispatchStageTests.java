@@ -0,0 +1,98 @@
+package com.zero.nts.server.dispatch;
+
+import com.zero.nts.config.NettyProperties;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DispatchStageTests {
+
+    private static DispatchStage newStage(DispatchMode mode, int threads, int maxPendingTasks) {
+        NettyProperties properties = new NettyProperties();
+        properties.getDispatch().setMode(mode);
+        properties.getDispatch().setThreads(threads);
+        properties.getDispatch().setMaxPendingTasks(maxPendingTasks);
+        return new DispatchStage(properties);
+    }
+
+    /**
+     * 处理器收到 "block" 时阻塞直到 release 打开，其余消息计数
+     */
+    private static EmbeddedChannel newChannel(DispatchStage stage, CountDownLatch release, CountDownLatch handled) {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast(stage.queueGuard()).addLast(stage.executorGroup(), new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+                boolean block = ((ByteBuf) msg).toString(java.nio.charset.StandardCharsets.UTF_8).equals("block");
+                ReferenceCountUtil.release(msg);
+                if (block) {
+                    release.await();
+                }
+                handled.countDown();
+            }
+        });
+        channel.pipeline().fireChannelActive();
+        return channel;
+    }
+
+    @Test
+    void virtualModeIsolatesBlockingChannels() throws Exception {
+        DispatchStage stage = newStage(DispatchMode.VIRTUAL, 0, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blockedHandled = new CountDownLatch(2);
+        CountDownLatch otherHandled = new CountDownLatch(1);
+        try {
+            EmbeddedChannel blocked = newChannel(stage, release, blockedHandled);
+            EmbeddedChannel other = newChannel(stage, release, otherHandled);
+            blocked.writeInbound(Unpooled.copiedBuffer("block".getBytes()), Unpooled.copiedBuffer("next".getBytes()));
+            other.writeInbound(Unpooled.copiedBuffer("hello".getBytes()));
+
+            // 阻塞的连接不影响其他连接，自身后续消息保持顺序等待
+            assertTrue(otherHandled.await(5, TimeUnit.SECONDS));
+            assertEquals(2, blockedHandled.getCount());
+            release.countDown();
+            assertTrue(blockedHandled.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            stage.shutdown();
+        }
+    }
+
+    @Test
+    void rejectedMessagesAreReleased() throws Exception {
+        // DefaultEventExecutorGroup 的队列上限最小为 16
+        DispatchStage stage = newStage(DispatchMode.EXECUTOR, 1, 16);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            EmbeddedChannel channel = newChannel(stage, release, new CountDownLatch(0));
+            channel.writeInbound(Unpooled.copiedBuffer("block".getBytes()));
+            List<ByteBuf> messages = new ArrayList<>();
+            for (int i = 0; i < 32 && channel.isOpen(); i++) {
+                ByteBuf msg = Unpooled.copiedBuffer("x".getBytes());
+                messages.add(msg);
+                channel.writeInbound(msg);
+            }
+            assertFalse(channel.isOpen());
+            release.countDown();
+            stage.shutdown();
+            stage.executorGroup().terminationFuture().await(5, TimeUnit.SECONDS);
+            for (ByteBuf msg : messages) {
+                assertEquals(0, msg.refCnt());
+            }
+        } finally {
+            release.countDown();
+            stage.shutdown();
+        }
+    }
+}
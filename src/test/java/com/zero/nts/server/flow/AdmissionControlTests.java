@@ -0,0 +1,77 @@
+package com.zero.nts.server.flow;
+
+import com.zero.nts.config.NettyProperties;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlTests {
+
+    @Test
+    void rejectsOverMaxConnections() {
+        NettyProperties properties = new NettyProperties();
+        properties.getAdmission().setMaxConnections(2);
+        AdmissionControl admission = new AdmissionControl(properties);
+        EmbeddedChannel server = new EmbeddedChannel(admission.handler());
+
+        EmbeddedChannel first = new EmbeddedChannel();
+        EmbeddedChannel second = new EmbeddedChannel();
+        EmbeddedChannel third = new EmbeddedChannel();
+        server.writeInbound(first, second, third);
+        assertSame(first, server.readInbound());
+        assertSame(second, server.readInbound());
+        assertNull(server.readInbound());
+        assertFalse(third.isOpen());
+        assertEquals(1, admission.rejectedByTotal());
+
+        // 连接关闭后释放名额
+        first.close();
+        EmbeddedChannel fourth = new EmbeddedChannel();
+        server.writeInbound(fourth);
+        assertSame(fourth, (Channel) server.readInbound());
+        assertEquals(2, admission.connections());
+    }
+
+    @Test
+    void rejectsOverAcceptRate() {
+        NettyProperties properties = new NettyProperties();
+        properties.getAdmission().setAcceptsPerSecond(1);
+        properties.getAdmission().setAcceptBurst(1);
+        AdmissionControl admission = new AdmissionControl(properties);
+        EmbeddedChannel server = new EmbeddedChannel(admission.handler());
+
+        server.writeInbound(new EmbeddedChannel(), new EmbeddedChannel());
+        assertNotNull(server.readInbound());
+        assertNull(server.readInbound());
+        assertEquals(1, admission.rejectedByRate());
+    }
+
+    @Test
+    void releasesSlotWhenRegistrationFails() {
+        NettyProperties properties = new NettyProperties();
+        properties.getAdmission().setMaxConnections(1);
+        properties.getAdmission().setMaxConnectionsPerIp(1);
+        AdmissionControl admission = new AdmissionControl(properties);
+        // 模拟 ServerBootstrapAcceptor 注册失败：closeForcibly() 不会完成 closeFuture
+        EmbeddedChannel server = new EmbeddedChannel(admission.handler(), new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(ChannelHandlerContext ctx, Object msg) {
+                ((Channel) msg).unsafe().closeForcibly();
+            }
+        });
+
+        EmbeddedChannel failed = new EmbeddedChannel();
+        server.writeInbound(failed);
+        assertFalse(failed.isOpen());
+        assertFalse(failed.closeFuture().isDone());
+        assertEquals(0, admission.connections());
+        // 名额只归还一次
+        failed.close();
+        assertEquals(0, admission.connections());
+        assertEquals(0, admission.rejectedByTotal());
+    }
+}
@@ -0,0 +1,54 @@
+package com.zero.nts.server.flow;
+
+import com.zero.nts.config.NettyProperties;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.zero.nts.TestMessages.message;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTests {
+
+    @Test
+    void gcraAllowsBurstThenDelays() {
+        GcraBucket bucket = new GcraBucket();
+        long second = TimeUnit.SECONDS.toNanos(1);
+        long now = 0;
+        // 10/s，容忍 2 个令牌的突发，之后每个令牌欠账 100ms
+        assertEquals(0, bucket.consume(1, now, 10, second / 5));
+        assertEquals(0, bucket.consume(1, now, 10, second / 5));
+        assertEquals(second / 10, bucket.consume(1, now, 10, second / 5));
+        assertEquals(second / 5, bucket.consume(1, now, 10, second / 5));
+        // 时间推进后恢复
+        assertEquals(0, bucket.consume(1, now + second, 10, second / 10));
+    }
+
+    @Test
+    void pausesReadingUntilBucketRecovers() throws Exception {
+        NettyProperties properties = new NettyProperties();
+        properties.getRateLimit().getChannel().setMessagesPerSecond(20);
+        properties.getRateLimit().setBurst(Duration.ZERO);
+        RateLimiter limiter = new RateLimiter(properties);
+        EmbeddedChannel channel = new EmbeddedChannel(limiter.handler());
+
+        channel.writeInbound(message("x".repeat(16)), message("x".repeat(16)));
+        assertFalse(channel.config().isAutoRead());
+        assertEquals(1, limiter.throttledCount());
+        // 消息不丢弃，照常向后传递
+        assertEquals(2, channel.inboundMessages().size());
+
+        Thread.sleep(100);
+        channel.runScheduledPendingTasks();
+        assertTrue(channel.config().isAutoRead());
+
+        // 运行时关闭限流
+        properties.getRateLimit().getChannel().setMessagesPerSecond(0);
+        limiter.reload(properties.getRateLimit());
+        channel.writeInbound(message("x".repeat(16)), message("x".repeat(16)), message("x".repeat(16)));
+        assertTrue(channel.config().isAutoRead());
+        assertTrue(channel.finishAndReleaseAll());
+    }
+}
@@ -0,0 +1,68 @@
+package com.zero.nts.server.flow;
+
+import com.zero.nts.codec.EasyEncoder;
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.message.EasyMessage;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static com.zero.nts.TestMessages.message;
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBackpressureTests {
+    /** 64 字节的数据体，两条即超过高水位 */
+    private static final String PAYLOAD = "x".repeat(64);
+
+    private static EmbeddedChannel newChannel(WriteBackpressure backpressure) {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.config().setOption(ChannelOption.WRITE_BUFFER_WATER_MARK, backpressure.waterMark());
+        channel.pipeline().addLast(new EasyEncoder(), backpressure.handler());
+        return channel;
+    }
+
+    private static WriteBackpressure newBackpressure(SlowConsumerPolicy policy) {
+        NettyProperties properties = new NettyProperties();
+        properties.getWrite().setHighWaterMark(100);
+        properties.getWrite().setLowWaterMark(50);
+        properties.getWrite().setSlowConsumerPolicy(policy);
+        return new WriteBackpressure(properties);
+    }
+
+    @Test
+    void pauseReadUntilWritable() {
+        EmbeddedChannel channel = newChannel(newBackpressure(SlowConsumerPolicy.PAUSE_READ));
+        channel.write(message(PAYLOAD));
+        channel.write(message(PAYLOAD));
+        channel.runPendingTasks();
+        assertFalse(channel.isWritable());
+        assertFalse(channel.config().isAutoRead());
+        assertTrue(WriteBackpressure.queuedBytes(channel) > 100);
+
+        channel.flush();
+        channel.runPendingTasks();
+        assertTrue(channel.isWritable());
+        assertTrue(channel.config().isAutoRead());
+        assertTrue(channel.finishAndReleaseAll());
+    }
+
+    @Test
+    void dropLowPriorityWhenUnwritable() {
+        WriteBackpressure backpressure = newBackpressure(SlowConsumerPolicy.DROP);
+        EmbeddedChannel channel = newChannel(backpressure);
+        channel.write(message(PAYLOAD));
+        channel.write(message(PAYLOAD));
+        channel.runPendingTasks();
+        assertFalse(channel.isWritable());
+
+        EasyMessage droppable = message(PAYLOAD);
+        droppable.setDroppable(true);
+        channel.write(droppable);
+        channel.write(message(PAYLOAD));
+        assertEquals(0, droppable.refCnt());
+        assertEquals(1, backpressure.droppedCount());
+        channel.flush();
+        assertEquals(3, channel.outboundMessages().size());
+        assertTrue(channel.finishAndReleaseAll());
+    }
+}
@@ -0,0 +1,43 @@
+package com.zero.nts.server.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongMapTests {
+
+    @Test
+    void matchesHashMap() {
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // 键集中在小范围内，制造冲突与探测链上的删除
+            long key = random.nextInt(512) * 1024L;
+            if (random.nextBoolean()) {
+                assertEquals(!expected.containsKey(key), map.putIfAbsent(key, i));
+                expected.putIfAbsent(key, (long) i);
+            } else {
+                Long value = expected.remove(key);
+                assertEquals(value == null ? -1 : value, map.remove(key, -1));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+    }
+
+    @Test
+    void removeOlderThan() {
+        LongLongMap map = new LongLongMap();
+        for (long id = 1; id <= 100; id++) {
+            map.putIfAbsent(id, id * 10);
+        }
+        assertEquals(49, map.removeOlderThan(500));
+        assertEquals(51, map.size());
+        assertEquals(-1, map.remove(49, -1));
+        assertEquals(500, map.remove(50, -1));
+    }
+}
@@ -0,0 +1,43 @@
+package com.zero.nts.server.metrics;
+
+import com.zero.nts.config.NettyProperties;
+import com.zero.nts.server.broadcast.BroadcastEngine;
+import com.zero.nts.server.flow.AdmissionControl;
+import com.zero.nts.server.flow.RateLimiter;
+import com.zero.nts.server.flow.WriteBackpressure;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerMetricsTests {
+
+    @Test
+    void queuedBytesGauges() {
+        NettyProperties properties = new NettyProperties();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BroadcastEngine engine = new BroadcastEngine(properties);
+        new ServerMetrics(registry, engine, new WriteBackpressure(properties), new RateLimiter(properties), new AdmissionControl(properties));
+
+        EmbeddedChannel small = new EmbeddedChannel();
+        EmbeddedChannel large = new EmbeddedChannel();
+        engine.register(small);
+        engine.register(large);
+        // 未 flush 的数据留在写缓冲区
+        small.write(Unpooled.buffer(100).writeZero(100));
+        large.write(Unpooled.buffer(300).writeZero(300));
+
+        // 排队字节数包含每条消息在 ChannelOutboundBuffer 中的固定开销
+        long smallQueued = WriteBackpressure.queuedBytes(small);
+        long largeQueued = WriteBackpressure.queuedBytes(large);
+        assertTrue(largeQueued >= 300 && smallQueued >= 100);
+        assertEquals(smallQueued + largeQueued, registry.get("nts.write.queued.bytes").gauge().value());
+        assertEquals(largeQueued, registry.get("nts.write.queued.bytes.max").gauge().value());
+
+        large.close();
+        assertEquals(smallQueued, registry.get("nts.write.queued.bytes").gauge().value());
+        small.close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.zero.nts.server.session;
+
+import com.zero.nts.message.EasyMessage;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+
+import static com.zero.nts.TestMessages.message;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionRegistryTests {
+
+    @Test
+    void sendToBoundSession() {
+        SessionRegistry registry = new SessionRegistry();
+        EmbeddedChannel channel = new EmbeddedChannel();
+        registry.bind("alice", channel);
+        assertEquals("alice", registry.sessionId(channel));
+
+        assertTrue(registry.sendTo("alice", message("")));
+        EasyMessage written = channel.readOutbound();
+        assertEquals(1, written.getId());
+        written.release();
+
+        EasyMessage missing = message("");
+        assertFalse(registry.sendTo("bob", missing));
+        assertEquals(0, missing.refCnt());
+
+        registry.unbind(channel);
+        assertEquals(0, registry.size());
+        assertNull(registry.sessionId(channel));
+    }
+
+    @Test
+    void reloginClosesPreviousChannel() {
+        SessionRegistry registry = new SessionRegistry();
+        EmbeddedChannel first = new EmbeddedChannel();
+        EmbeddedChannel second = new EmbeddedChannel();
+        registry.bind("alice", first);
+        registry.bind("alice", second);
+
+        assertFalse(first.isOpen());
+        assertSame(second, registry.channel("alice"));
+        // 旧连接断开时不影响新连接的绑定
+        registry.unbind(first);
+        assertSame(second, registry.channel("alice"));
+        assertEquals(1, registry.size());
+    }
+}
@@ -0,0 +1,34 @@
+package com.zero.nts.transport;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.FastThreadLocalThread;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLoopThreadFactoryTests {
+
+    @Test
+    void parseCpus() {
+        assertEquals(List.of(2, 3, 4, 5, 8, 10, 11), EventLoopThreadFactory.parseCpus("2-5, 8,10-11"));
+        assertTrue(EventLoopThreadFactory.parseCpus("").isEmpty());
+        assertTrue(EventLoopThreadFactory.parseCpus(null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> EventLoopThreadFactory.parseCpus("5-2"));
+        assertThrows(NumberFormatException.class, () -> EventLoopThreadFactory.parseCpus("a"));
+    }
+
+    @Test
+    void namedAndPinnedEventLoops() throws Exception {
+        EventLoopGroup group = TransportType.NIO.newEventLoopGroup(2, new EventLoopThreadFactory("test-loop", List.of(0)), 80, false);
+        try {
+            // 绑核失败只记录告警，线程照常运行
+            Thread thread = group.next().submit(Thread::currentThread).get();
+            assertTrue(thread.getName().startsWith("test-loop-"), thread.getName());
+            assertInstanceOf(FastThreadLocalThread.class, thread);
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+}